@@ -2,10 +2,14 @@ package actions;
 
 import entertainment.Movie;
 import entertainment.Serial;
+import entertainment.Show;
 import user.User;
 
 /**
- * Contains the types of commands that a User can give.
+ * Contains the types of commands that a User can give. The commands of
+ * different Users can be executed at the same time (see
+ * ConcurrentCommandRunner), but the commands of one User must be executed one
+ * after another.
  */
 public class CommandAction {
     /**
@@ -25,7 +29,13 @@ public class CommandAction {
      */
     public String addFavourite(final User user, final String title) {
         if (user.getUsername() != null) {
-            return user.addFavourite(title);
+            boolean isFavourite = user.isFavorite(title);
+            String result = user.addFavourite(title);
+            if (!isFavourite && user.isFavorite(title)) {
+                // The Show was added now, so it has one more favorite
+                data.recordFavorite(title);
+            }
+            return result;
         }
         return "error -> user does not exist";
     }
@@ -38,7 +48,9 @@ public class CommandAction {
      */
     public String addView(final User user, final String title) {
         if (user.getUsername() != null) {
-            return user.addView(title);
+            String result = user.addView(title);
+            data.recordView(title);
+            return result;
         }
         return "error -> user does not exist";
     }
@@ -56,20 +68,40 @@ public class CommandAction {
     public String addRating(final User user, final String title, final double rating,
                             final int season) {
         // Check if the Show with this title is a Movie
-        for (Movie movie : data.getMoviesList()) {
-            if (movie.getTitle().equals(title)) {
-                // It is a Movie, so use addRating for Movies
-                return user.addRating(movie, rating);
+        Movie movie = data.getShowCatalog().getMovie(title);
+        if (movie != null) {
+            // It is a Movie, so use addRating for Movies (holding the lock of
+            // the Movie, in case other Users rate it at the same time)
+            synchronized (data.getShowLock(movie)) {
+                int noRatings = movie.getNoRatings();
+                String result = user.addRating(movie, rating);
+                updateRating(movie, noRatings);
+                return result;
             }
         }
 
         // Otherwise, check if it is a Serial
-        for (Serial serial : data.getSerialsList()) {
-            if (serial.getTitle().equals(title)) {
-                // It is a Serial, so use addRating for Serials
-                return user.addRating(serial, rating, season);
+        Serial serial = data.getShowCatalog().getSerial(title);
+        if (serial != null) {
+            // It is a Serial, so use addRating for Serials
+            synchronized (data.getShowLock(serial)) {
+                int noRatings = serial.getNoRatings();
+                String result = user.addRating(serial, rating, season);
+                updateRating(serial, noRatings);
+                return result;
             }
         }
         return "error -> show does not exist";
     }
+
+    /**
+     * Lets the Database know if a Show has received a new rating.
+     * @param show The Show that a User tried to rate
+     * @param oldNoRatings The number of ratings of the Show before that
+     */
+    private void updateRating(final Show show, final int oldNoRatings) {
+        if (show.getNoRatings() != oldNoRatings) {
+            data.recordRating(show);
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package actions;
+
+import entertainment.Show;
+import fileio.ActionInputData;
+import user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Executes a batch of commands, one after another or on more threads. On more
+ * threads, the commands are split into groups that share nothing whose order
+ * matters: two commands are in the same group if they are given by the same
+ * User or if they rate the same Show (the ratings of a Show are added up in
+ * order, so their sum depends on it). The commands of a group are executed in
+ * the given order, on one thread, while different groups run in parallel.
+ * Views and favorites are only counted, under the locks of the Database, so
+ * the results are the same as if the commands were executed one after another.
+ */
+public final class ConcurrentCommandRunner {
+    /**
+     * Current Database
+     */
+    private final DataContainer data;
+    /**
+     * The threads that execute the commands
+     */
+    private final ExecutorService executor;
+
+    /**
+     * @param data Current Database
+     * @param executor The threads that execute the commands
+     */
+    public ConcurrentCommandRunner(final DataContainer data, final ExecutorService executor) {
+        this.data = data;
+        this.executor = executor;
+    }
+
+    /**
+     * Executes the commands on more threads and waits for all of them to
+     * finish.
+     * @param commands The commands (all with action type "command")
+     * @return The result messages, where results[i] is the result of the
+     *         command at position i (null if its type is not a known command)
+     */
+    public String[] run(final List<ActionInputData> commands) {
+        String[] results = new String[commands.size()];
+
+        // Join each command with the previous command of its User and with
+        // the previous rating of its Show
+        int[] groups = new int[commands.size()];
+        Map<String, Integer> lastOfUser = new HashMap<>();
+        int[] lastOfShow = new int[data.getShowCatalog().size()];
+        Arrays.fill(lastOfShow, -1);
+        for (int i = 0; i < commands.size(); i++) {
+            groups[i] = i;
+            Integer previous = lastOfUser.put(commands.get(i).getUsername(), i);
+            if (previous != null) {
+                join(groups, previous, i);
+            }
+            Show show = ratedShow(commands.get(i));
+            if (show != null) {
+                if (lastOfShow[show.getId()] >= 0) {
+                    join(groups, lastOfShow[show.getId()], i);
+                }
+                lastOfShow[show.getId()] = i;
+            }
+        }
+
+        // The positions of the commands of each group, in the given order
+        Map<Integer, List<Integer>> commandsByGroup = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            commandsByGroup.computeIfAbsent(find(groups, i), key -> new ArrayList<>()).add(i);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (List<Integer> positions : commandsByGroup.values()) {
+            tasks.add(() -> {
+                CommandAction commandAction = new CommandAction(data);
+                for (int i : positions) {
+                    results[i] = execute(commandAction, commands.get(i));
+                }
+                return null;
+            });
+        }
+
+        if (tasks.size() == 1) {
+            // Only one group, so there is nothing to run in parallel
+            runNow(tasks.get(0));
+            return results;
+        }
+        try {
+            for (Future<Void> task : executor.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing commands", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+        // invokeAll waited for every task, so their results are visible here
+        return results;
+    }
+
+    /**
+     * Executes the commands one after another, on the current thread.
+     * @param commands The commands (all with action type "command")
+     * @return The result messages, where results[i] is the result of the
+     *         command at position i (null if its type is not a known command)
+     */
+    public String[] runInOrder(final List<ActionInputData> commands) {
+        String[] results = new String[commands.size()];
+        CommandAction commandAction = new CommandAction(data);
+        for (int i = 0; i < commands.size(); i++) {
+            results[i] = execute(commandAction, commands.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * @param command A command
+     * @return The Show that the command rates (the same one as
+     *         CommandAction.addRating), or null if it is not a rating of a
+     *         Show from the Database
+     */
+    private Show ratedShow(final ActionInputData command) {
+        if (!"rating".equals(command.getType())) {
+            return null;
+        }
+        Show show = data.getShowCatalog().getMovie(command.getTitle());
+        if (show == null) {
+            show = data.getShowCatalog().getSerial(command.getTitle());
+        }
+        return show;
+    }
+
+    /**
+     * @param groups The union-find forest of the commands, where groups[i] is
+     *               the parent of the command at position i
+     * @param position The position of a command
+     * @return The position of the first command of its group
+     */
+    private static int find(final int[] groups, final int position) {
+        int root = position;
+        while (groups[root] != root) {
+            // Skip a level of the tree on the way up
+            groups[root] = groups[groups[root]];
+            root = groups[root];
+        }
+        return root;
+    }
+
+    /**
+     * Puts two commands (and their groups) in the same group.
+     * @param groups The union-find forest of the commands
+     * @param first The position of a command
+     * @param second The position of another command
+     */
+    private static void join(final int[] groups, final int first, final int second) {
+        int firstRoot = find(groups, first);
+        int secondRoot = find(groups, second);
+        // The group is named after its first command
+        groups[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+    }
+
+    /**
+     * Executes one command, the same way as the main loop does.
+     * @param commandAction The commands of the Database
+     * @param command The command
+     * @return The result message, or null if the type of the command is unknown
+     */
+    private String execute(final CommandAction commandAction, final ActionInputData command) {
+        User user = data.getUserRegistry().getUser(command.getUsername());
+        return switch (command.getType()) {
+            case "favorite" -> commandAction.addFavourite(user, command.getTitle());
+            case "view" -> commandAction.addView(user, command.getTitle());
+            case "rating" -> commandAction.addRating(user, command.getTitle(),
+                    command.getGrade(), command.getSeasonNumber());
+            default -> null;
+        };
+    }
+
+    /**
+     * Runs a task on the current thread.
+     * @param task The task
+     */
+    private static void runNow(final Callable<Void> task) {
+        try {
+            task.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Lets the exception of a command reach the caller, as if the command was
+     * executed on its thread.
+     * @param cause The exception thrown by a command
+     * @return The checked exception, wrapped (unchecked exceptions and errors
+     *         are thrown as they are)
+     */
+    private static RuntimeException rethrow(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
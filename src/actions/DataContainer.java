@@ -1,23 +1,45 @@
 package actions;
 
 import actor.Actor;
+import entertainment.Genre;
 import entertainment.Movie;
 import entertainment.Serial;
+import entertainment.Show;
 import fileio.Input;
 import fileio.SerialInputData;
 import fileio.MovieInputData;
 import fileio.ActorInputData;
 import fileio.UserInputData;
 import user.User;
+import utils.StripedLocks;
+import utils.SymbolTable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Contains the Lists of Actors, Users, Movies and Serials from our current
  * Database.
  */
 public final class DataContainer {
+    /**
+     * Orders the Shows with the same score in reverse Database order, so that
+     * going through a leaderboard from the highest score gives them in
+     * Database order (like a stable sort in descending order)
+     */
+    private static final Comparator<Show> BY_ID_DESCENDING =
+            Comparator.comparingInt(Show::getId).reversed();
+    /**
+     * Number of locks shared by the Shows
+     */
+    private static final int SHOW_LOCK_STRIPES = 64;
+
     /**
      * List of Actors that exist in this Database
      */
@@ -34,49 +56,325 @@ public final class DataContainer {
      * List of Serials that exist in this Database
      */
     private List<Serial> serialsList = new ArrayList<>();
+    /**
+     * Ids of the titles of the Shows (Shows with the same title share an id)
+     */
+    private final SymbolTable titleSymbols = new SymbolTable();
+    /**
+     * Ids of the usernames of the Users
+     */
+    private final SymbolTable userSymbols = new SymbolTable();
+    /**
+     * Index of the Users from this Database, by username
+     */
+    private final UserRegistry userRegistry;
+    /**
+     * Index of the Shows from this Database, by title and by id
+     */
+    private final ShowCatalog showCatalog;
+    /**
+     * The ids of the Actors that played in each Show, where castByShow[id] is
+     * the cast of the Show with that id
+     */
+    private final int[][] castByShow;
+    /**
+     * Total number of views of the Shows that have each Genre, where
+     * viewsByGenre[i] is for the Genre with ordinal i (every view adds to
+     * them, so they are counters that more threads can add to at once)
+     */
+    private final LongAdder[] viewsByGenre = new LongAdder[Genre.values().length];
+    /**
+     * The locks of the Shows, by id. A command holds the lock of a Show while
+     * it changes the Show, so commands on different Shows can run at the same
+     * time.
+     */
+    private final StripedLocks showLocks = new StripedLocks(SHOW_LOCK_STRIPES);
+    /**
+     * The Actors from this Database, sorted by their number of awards, then
+     * by their name (the awards never change)
+     */
+    private final List<Actor> actorsByAwards;
+    /**
+     * Index of the Actors by the words of their careerDescription
+     */
+    private final DescriptionIndex descriptionIndex;
+    /**
+     * The Shows that have each Genre, sorted by their rating (then by their
+     * title), for the Search recommendation
+     */
+    private final Map<Genre, ShowLeaderboard> ratingsByGenre = new EnumMap<>(Genre.class);
+    /**
+     * All the Shows, sorted by their rating, for the BestRatedUnseen
+     * recommendation
+     */
+    private final ShowLeaderboard bestRated;
+    /**
+     * All the Shows, sorted by how many Users added them to favorites, for
+     * the Favorite recommendation
+     */
+    private final ShowLeaderboard mostFavorite;
+    /**
+     * Leaderboards of the Movies, for the queries without filters
+     */
+    private final ShowLeaderboards movieLeaderboards;
+    /**
+     * Leaderboards of the Serials, for the queries without filters
+     */
+    private final ShowLeaderboards serialLeaderboards;
 
     /**
      * This constructor makes a deep copy of every list of entities that are
-     * given to us as input. For Actors, it also builds their moviesFilmography
-     * and serialsFilmography lists.
+     * given to us as input. Shows, Users and Actors get dense ids (Shows and
+     * Users from the symbol tables). For Shows, it also builds the catalog
+     * used to find them by title, and for Users the registry used to find
+     * them by username.
+     * For Actors, it builds their moviesFilmography and serialsFilmography
+     * lists, by looking up each title of their filmography in the catalog,
+     * the cast of each Show, the index of the words from their
+     * careerDescription and their order by awards. Finally, it counts the
+     * views and favorites that each Show (and each Genre) has received so far
+     * and builds the leaderboards of the Shows (also one for all of them and
+     * one for each Genre).
      * @param input The input from our Database
      */
     public DataContainer(final Input input) {
-        for (UserInputData user : input.getUsers()) {
-            usersList.add(new User(user.getUsername(), user.getSubscriptionType(),
-                    user.getHistory(), user.getFavoriteMovies()));
-        }
+        // The id of a Show is its position in the Database, while Shows with
+        // the same title share the id of their title
         for (MovieInputData movie : input.getMovies()) {
-            moviesList.add(new Movie(movie.getTitle(), movie.getYear(),
-                    movie.getDuration(), movie.getGenres(), movie.getCast()));
+            moviesList.add(new Movie(moviesList.size(), titleSymbols.intern(movie.getTitle()),
+                    movie.getTitle(), movie.getYear(), movie.getDuration(),
+                    movie.getGenres(), movie.getCast()));
         }
         for (SerialInputData serial : input.getSerials()) {
-            serialsList.add(new Serial(serial.getTitle(), serial.getYear(),
-                    serial.getNumberSeason(), serial.getGenres(),
+            // Serials get their ids after all the Movies
+            serialsList.add(new Serial(moviesList.size() + serialsList.size(),
+                    titleSymbols.intern(serial.getTitle()), serial.getTitle(),
+                    serial.getYear(), serial.getNumberSeason(), serial.getGenres(),
                     serial.getCast(), serial.getSeasons()));
         }
+        showCatalog = new ShowCatalog(titleSymbols, moviesList, serialsList);
+
+        // The Users are added after the Shows, so that the titles of the Shows
+        // keep the first ids (titles that are not in the catalog get theirs now)
+        for (UserInputData user : input.getUsers()) {
+            usersList.add(new User(userSymbols.intern(user.getUsername()),
+                    user.getUsername(), user.getSubscriptionType(), titleSymbols,
+                    showCatalog.getShowTitleIds(), user.getHistory(),
+                    user.getFavoriteMovies()));
+
+            // Count the views and favorites that the Shows already have (all
+            // the Shows with a title get them)
+            for (Map.Entry<String, Integer> showEntry : user.getHistory().entrySet()) {
+                for (Show show : showCatalog.getShowsWithTitle(showEntry.getKey())) {
+                    show.addViews(showEntry.getValue());
+                }
+            }
+            Set<String> favoriteShows = new HashSet<>(user.getFavoriteMovies());
+            for (String title : favoriteShows) {
+                for (Show show : showCatalog.getShowsWithTitle(title)) {
+                    show.addFavorite();
+                }
+            }
+        }
+        userRegistry = new UserRegistry(userSymbols, usersList);
+
+        // The filmography of each Actor, used to build the cast of each Show
+        List<List<Show>> filmographies = new ArrayList<>();
         for (ActorInputData actor : input.getActors()) {
             ArrayList<Movie> moviesFilmography = new ArrayList<>();
             ArrayList<Serial> serialsFilmography = new ArrayList<>();
 
-            for (Movie movie : moviesList) {
-                // If this movie is in his filmography
-                if (actor.getFilmography().contains(movie.getTitle())) {
-                    moviesFilmography.add(movie);
+            // Find each title of his filmography in the catalog (titles that
+            // are not in our Database are skipped, duplicates are kept once)
+            Set<Show> playedShows = new HashSet<>();
+            List<Show> filmography = new ArrayList<>();
+            for (String title : actor.getFilmography()) {
+                Show show = showCatalog.getShow(title);
+                if (show != null && playedShows.add(show)) {
+                    filmography.add(show);
                 }
             }
-            for (Serial serial : serialsList) {
-                // If this serial is in his filmography
-                if (actor.getFilmography().contains(serial.getTitle())) {
-                    serialsFilmography.add(serial);
+            // Keep the Shows in the same order as in the Database
+            filmography.sort(Comparator.comparingInt(Show::getId));
+
+            for (Show show : filmography) {
+                if (show instanceof Movie) {
+                    moviesFilmography.add((Movie) show);
+                } else {
+                    serialsFilmography.add((Serial) show);
                 }
             }
 
-            actorsList.add(new Actor(actor.getName(), actor.getAwards(),
-                    moviesFilmography, actor.getCareerDescription(), serialsFilmography));
+            // The id of an Actor is its position in actorsList
+            actorsList.add(new Actor(actorsList.size(), actor.getName(),
+                    actor.getAwards(), moviesFilmography, actor.getCareerDescription(),
+                    serialsFilmography));
+            filmographies.add(filmography);
+        }
+        castByShow = buildCasts(showCatalog.size(), filmographies);
+        descriptionIndex = new DescriptionIndex(actorsList);
+        actorsByAwards = new ArrayList<>(actorsList);
+        actorsByAwards.sort(Comparator.comparingInt(Actor::getNumberOfAwards)
+                .thenComparing(Actor::getName));
+
+        for (Genre genre : Genre.values()) {
+            viewsByGenre[genre.ordinal()] = new LongAdder();
+        }
+        for (Show show : showCatalog.getShows()) {
+            addGenreViews(show, show.getTimesViewed());
+        }
+        movieLeaderboards = new ShowLeaderboards(moviesList);
+        serialLeaderboards = new ShowLeaderboards(serialsList);
+        bestRated = new ShowLeaderboard(showCatalog.getShows(), Show::getFinalRating,
+                BY_ID_DESCENDING);
+        mostFavorite = new ShowLeaderboard(showCatalog.getShows(), Show::getTimesFavorite,
+                BY_ID_DESCENDING);
+        for (Genre genre : Genre.values()) {
+            ratingsByGenre.put(genre, new ShowLeaderboard(showCatalog.getShows(genre),
+                    Show::getFinalRating, ShowLeaderboards.BY_TITLE));
+        }
+    }
+
+    /**
+     * Builds the cast of each Show from the filmographies of the Actors.
+     * @param noShows The number of Shows
+     * @param filmographies The filmography of each Actor, where
+     *                      filmographies[id] belongs to the Actor with that id
+     * @return The ids of the Actors that played in each Show
+     */
+    private static int[][] buildCasts(final int noShows, final List<List<Show>> filmographies) {
+        int[] castSizes = new int[noShows];
+        for (List<Show> filmography : filmographies) {
+            for (Show show : filmography) {
+                castSizes[show.getId()]++;
+            }
+        }
+
+        int[][] casts = new int[noShows][];
+        for (int showId = 0; showId < noShows; showId++) {
+            casts[showId] = new int[castSizes[showId]];
+            castSizes[showId] = 0;
+        }
+        for (int actorId = 0; actorId < filmographies.size(); actorId++) {
+            for (Show show : filmographies.get(actorId)) {
+                casts[show.getId()][castSizes[show.getId()]++] = actorId;
+            }
+        }
+        return casts;
+    }
+
+    /**
+     * Adds views to the total number of views of each Genre of a Show.
+     * @param show The viewed Show
+     * @param views The number of views
+     */
+    private void addGenreViews(final Show show, final int views) {
+        for (Genre genre : Genre.values()) {
+            if (show.hasGenre(genre)) {
+                viewsByGenre[genre.ordinal()].add(views);
+            }
+        }
+    }
+
+    /**
+     * @param show A Show from our Database
+     * @return The leaderboards of the Movies if the Show is a Movie, the
+     *         leaderboards of the Serials otherwise
+     */
+    private ShowLeaderboards leaderboardsOf(final Show show) {
+        if (show instanceof Movie) {
+            return movieLeaderboards;
+        }
+        return serialLeaderboards;
+    }
+
+    /**
+     * @param show A Show from our Database
+     * @return The lock that must be held while the Show is changed (shared
+     *         with some other Shows)
+     */
+    public Object getShowLock(final Show show) {
+        return showLocks.lockFor(show.getId());
+    }
+
+    /**
+     * Updates the Shows with this title after a User viewed it once more.
+     * @param title Title of the viewed Show
+     */
+    public void recordView(final String title) {
+        for (Show show : showCatalog.getShowsWithTitle(title)) {
+            synchronized (getShowLock(show)) {
+                show.addViews(1);
+                leaderboardsOf(show).updateViews(show);
+            }
+            addGenreViews(show, 1);
+        }
+    }
+
+    /**
+     * Updates the Shows with this title after a User added it to their list
+     * of favoriteShows.
+     * @param title Title of the favorite Show
+     */
+    public void recordFavorite(final String title) {
+        for (Show show : showCatalog.getShowsWithTitle(title)) {
+            synchronized (getShowLock(show)) {
+                show.addFavorite();
+                leaderboardsOf(show).updateFavorites(show);
+                mostFavorite.update(show);
+            }
         }
     }
 
+    /**
+     * Updates the leaderboards and the Actors that played in a Show after it
+     * received a new rating. The caller must hold the lock of the Show (the
+     * same lock it held while the Show received the rating).
+     * @param show The rated Show
+     */
+    public void recordRating(final Show show) {
+        leaderboardsOf(show).updateRating(show);
+        bestRated.update(show);
+        for (Genre genre : Genre.values()) {
+            if (show.hasGenre(genre)) {
+                ratingsByGenre.get(genre).update(show);
+            }
+        }
+        // An Actor can also be updated at the same time for another of their
+        // Shows (updateRating is synchronized)
+        for (int actorId : castByShow[show.getId()]) {
+            actorsList.get(actorId).updateRating();
+        }
+    }
+
+    /**
+     * @param genre A Genre
+     * @return The total number of views of the Shows that have this Genre
+     */
+    public int getGenreViews(final Genre genre) {
+        return viewsByGenre[genre.ordinal()].intValue();
+    }
+
+    public ShowLeaderboard getBestRated() {
+        return bestRated;
+    }
+
+    public ShowLeaderboard getMostFavorite() {
+        return mostFavorite;
+    }
+
+    /**
+     * @param genre A Genre (or null)
+     * @return The Shows that have this Genre, sorted by their rating, then by
+     *         their title (null if the Genre is null)
+     */
+    public ShowLeaderboard getRatingsByGenre(final Genre genre) {
+        if (genre == null) {
+            return null;
+        }
+        return ratingsByGenre.get(genre);
+    }
+
     public List<Actor> getActorsList() {
         return actorsList;
     }
@@ -85,6 +383,30 @@ public final class DataContainer {
         return usersList;
     }
 
+    public UserRegistry getUserRegistry() {
+        return userRegistry;
+    }
+
+    public ShowCatalog getShowCatalog() {
+        return showCatalog;
+    }
+
+    public List<Actor> getActorsByAwards() {
+        return actorsByAwards;
+    }
+
+    public DescriptionIndex getDescriptionIndex() {
+        return descriptionIndex;
+    }
+
+    public ShowLeaderboards getMovieLeaderboards() {
+        return movieLeaderboards;
+    }
+
+    public ShowLeaderboards getSerialLeaderboards() {
+        return serialLeaderboards;
+    }
+
     public List<Movie> getMoviesList() {
         return moviesList;
     }
@@ -0,0 +1,123 @@
+package actions;
+
+import actor.Actor;
+import utils.KeywordMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted index over the careerDescriptions of the Actors: for each word
+ * (token) of the descriptions, it keeps the Actors whose description contains
+ * it. The descriptions never change, so it is built only once, when the
+ * Database is loaded, and a filter_description query only has to intersect
+ * the lists of its keywords, without reading any description.
+ */
+public final class DescriptionIndex {
+    /**
+     * The Actors from our Database, sorted by name (Actors with the same name
+     * stay in the same order as in the Database)
+     */
+    private final Actor[] actorsByName;
+    /**
+     * For each folded token, the positions (in actorsByName) of the Actors
+     * that have it in their description, in ascending order
+     */
+    private final Map<String, int[]> postings = new HashMap<>();
+
+    /**
+     * @param actors The Actors from our Database
+     */
+    public DescriptionIndex(final List<Actor> actors) {
+        actorsByName = actors.toArray(new Actor[0]);
+        Arrays.sort(actorsByName, Comparator.comparing(Actor::getName));
+
+        Map<String, List<Integer>> actorsOfToken = new HashMap<>();
+        for (int rank = 0; rank < actorsByName.length; rank++) {
+            String description = actorsByName[rank].getCareerDescription();
+            if (description == null) {
+                continue;
+            }
+            for (String token : KeywordMatcher.tokens(description)) {
+                List<Integer> ranks = actorsOfToken.computeIfAbsent(token,
+                        key -> new ArrayList<>());
+                // The same token can appear more times in one description
+                if (ranks.isEmpty() || ranks.get(ranks.size() - 1) != rank) {
+                    ranks.add(rank);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Integer>> tokenEntry : actorsOfToken.entrySet()) {
+            postings.put(tokenEntry.getKey(),
+                    tokenEntry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Finds the Actors whose careerDescription contains *all* the keyWords
+     * (the same Actors as Actor.hasKeyWords). Keywords that are plain words
+     * are looked up in the index. The other ones (if any) are only checked
+     * in the descriptions of the Actors that were found by the index.
+     * @param keyWords The keyWords of a filter_description query
+     * @return The Actors that were found, sorted by name
+     */
+    public List<Actor> select(final List<String> keyWords) {
+        // Positions of the Actors that have all the tokens so far, in
+        // ascending order (null means all the Actors)
+        int[] selected = null;
+        List<String> otherKeyWords = new ArrayList<>();
+        for (String keyWord : keyWords) {
+            if (!KeywordMatcher.isToken(keyWord)) {
+                otherKeyWords.add(keyWord);
+                continue;
+            }
+            int[] ranks = postings.get(KeywordMatcher.fold(keyWord));
+            if (ranks == null) {
+                return new ArrayList<>();
+            }
+            selected = (selected == null) ? ranks : intersect(selected, ranks);
+        }
+
+        List<Actor> result = new ArrayList<>();
+        if (selected == null) {
+            result.addAll(Arrays.asList(actorsByName));
+        } else {
+            for (int rank : selected) {
+                result.add(actorsByName[rank]);
+            }
+        }
+        if (!otherKeyWords.isEmpty()) {
+            KeywordMatcher matcher = new KeywordMatcher(otherKeyWords);
+            result.removeIf(actor -> !actor.hasKeyWords(matcher));
+        }
+        return result;
+    }
+
+    /**
+     * @param first A sorted array of positions
+     * @param second Another sorted array of positions
+     * @return The positions that are in both arrays, sorted
+     */
+    private static int[] intersect(final int[] first, final int[] second) {
+        int[] common = new int[Math.min(first.length, second.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                common[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, size);
+    }
+}
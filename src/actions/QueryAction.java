@@ -1,15 +1,15 @@
 package actions;
 
 import actor.Actor;
-import entertainment.Movie;
-import entertainment.Serial;
 import entertainment.Show;
 import user.User;
+import utils.TopK;
+import utils.Utils;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Contains the types of Queries that a User can ask for.
@@ -20,10 +20,140 @@ public class QueryAction {
      */
     private final DataContainer data;
 
+    /**
+     * Orders Actors by their rating, then by their name
+     */
+    private static final Comparator<Actor> ACTORS_BY_RATING = new Comparator<Actor>() {
+        @Override
+        public int compare(final Actor o1, final Actor o2) {
+            if (o1.getRating() == o2.getRating()) {
+                return o1.getName().compareTo(o2.getName());
+            }
+            return Double.compare(o1.getRating(), o2.getRating());
+        }
+    };
+    /**
+     * Orders Actors by their number of awards, then by their name
+     */
+    private static final Comparator<Actor> ACTORS_BY_AWARDS = new Comparator<Actor>() {
+        @Override
+        public int compare(final Actor o1, final Actor o2) {
+            if (o1.getNumberOfAwards() == o2.getNumberOfAwards()) {
+                return o1.getName().compareTo(o2.getName());
+            }
+            return Integer.compare(o1.getNumberOfAwards(), o2.getNumberOfAwards());
+        }
+    };
+    /**
+     * Orders Actors by their name
+     */
+    private static final Comparator<Actor> ACTORS_BY_NAME = new Comparator<Actor>() {
+        @Override
+        public int compare(final Actor o1, final Actor o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+    /**
+     * Orders Shows by their rating, then by their title
+     */
+    private static final Comparator<Show> SHOWS_BY_RATING = new Comparator<Show>() {
+        @Override
+        public int compare(final Show o1, final Show o2) {
+            if (o1.getFinalRating() == o2.getFinalRating()) {
+                return o1.getTitle().compareTo(o2.getTitle());
+            }
+            return Double.compare(o1.getFinalRating(), o2.getFinalRating());
+        }
+    };
+    /**
+     * Orders Shows by how many Users added them to favorites, then by their title
+     */
+    private static final Comparator<Show> SHOWS_BY_FAVORITE = new Comparator<Show>() {
+        @Override
+        public int compare(final Show o1, final Show o2) {
+            if (o1.getTimesFavorite() == o2.getTimesFavorite()) {
+                return o1.getTitle().compareTo(o2.getTitle());
+            }
+            return Integer.compare(o1.getTimesFavorite(), o2.getTimesFavorite());
+        }
+    };
+    /**
+     * Orders Shows by their total duration, then by their title
+     */
+    private static final Comparator<Show> SHOWS_BY_DURATION = new Comparator<Show>() {
+        @Override
+        public int compare(final Show o1, final Show o2) {
+            if (o1.getTotalDuration() == o2.getTotalDuration()) {
+                return o1.getTitle().compareTo(o2.getTitle());
+            }
+            return Integer.compare(o1.getTotalDuration(), o2.getTotalDuration());
+        }
+    };
+    /**
+     * Orders Shows by their number of views, then by their title
+     */
+    private static final Comparator<Show> SHOWS_BY_VIEWS = new Comparator<Show>() {
+        @Override
+        public int compare(final Show o1, final Show o2) {
+            if (o1.getTimesViewed() == o2.getTimesViewed()) {
+                return o1.getTitle().compareTo(o2.getTitle());
+            }
+            return Integer.compare(o1.getTimesViewed(), o2.getTimesViewed());
+        }
+    };
+    /**
+     * Orders Users by their number of given ratings, then by their username
+     */
+    private static final Comparator<User> USERS_BY_RATINGS = new Comparator<User>() {
+        @Override
+        public int compare(final User o1, final User o2) {
+            if (o1.getNoRatings() == o2.getNoRatings()) {
+                return o1.getUsername().compareTo(o2.getUsername());
+            }
+            return Integer.compare(o1.getNoRatings(), o2.getNoRatings());
+        }
+    };
+
     public QueryAction(final DataContainer data) {
         this.data = data;
     }
 
+    /**
+     * Gives the order in which the result of a query must be sorted.
+     * @param ascending The ascending order for this query
+     * @param sortType "asc" for ascending order, "desc" for descending order
+     * @param <T> Type of the sorted elements
+     * @return The given order, or the reversed one for "desc"
+     */
+    private static <T> Comparator<T> inSortOrder(final Comparator<T> ascending,
+                                                 final String sortType) {
+        if (sortType.equals("desc")) {
+            return ascending.reversed();
+        }
+        return ascending;
+    }
+
+    /**
+     * Selects the first elements (in the given order) that respect a condition.
+     * @param elements The elements to select from
+     * @param number How many elements are selected (all of them if number <= 0)
+     * @param order The order of the result
+     * @param condition The condition that the selected elements must respect
+     * @param <T> Type of the selected elements
+     * @return The selected elements, sorted in the given order
+     */
+    private static <T> List<T> selectFirst(final List<? extends T> elements, final int number,
+                                           final Comparator<T> order,
+                                           final Predicate<T> condition) {
+        TopK<T> topElements = new TopK<>(number, order);
+        for (T element : elements) {
+            if (condition.test(element)) {
+                topElements.offer(element);
+            }
+        }
+        return topElements.toList();
+    }
+
     /**
      * Executes a query on Actors, depending on the given parameters.
      * @param number How many actors we want to return.
@@ -49,83 +179,26 @@ public class QueryAction {
 
         switch (criteria) {
             case "average":
-                for (Actor actor : actors) {
-                    // Compute the rating of this Actor
-                    actor.computeRating();
-                }
-
-                Collections.sort(actors, new Comparator<Actor>() {
-                    @Override
-                    public int compare(final Actor o1, final Actor o2) {
-                        if (o1.getRating() == o2.getRating()) {
-                            return o1.getName().compareTo(o2.getName());
-                        }
-                        return Double.compare(o1.getRating(), o2.getRating());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(actors);
-                }
-                int actorsToAdd = number;
-                for (Actor actor : actors) {
-                    if (actor.getRating() > 0) {
-                        sortedActors.add(actor);
-                        actorsToAdd--;
-                    }
-                    if (actorsToAdd == 0) {
-                        break;
-                    }
-                }
-
-                for (Actor actor : actors) {
-                    // After use, we have to reset each rating
-                    actor.setRating(0);
-                }
-
-                break;
+                return selectFirst(actors, number, inSortOrder(ACTORS_BY_RATING, sortType),
+                        actor -> actor.getRating() > 0);
 
             case "awards":
-                for (Actor actor : actors) {
-                    // Compute the number of awards of this Actor
-                    actor.computeNoAwards();
-                    if (actor.hasAwards(filters.get(3))) {
+                int wantedAwards = Utils.awardsToMask(filters.get(3));
+                // The Actors are already sorted by their awards, so this sort
+                // only has to reverse them for a descending query
+                for (Actor actor : data.getActorsByAwards()) {
+                    if (actor.hasAwards(wantedAwards)) {
                         sortedActors.add(actor);
                     }
                 }
-
-                Collections.sort(sortedActors, new Comparator<Actor>() {
-                    @Override
-                    public int compare(final Actor o1, final Actor o2) {
-                        if (o1.getNumberOfAwards() == o2.getNumberOfAwards()) {
-                            return o1.getName().compareTo(o2.getName());
-                        }
-                        return Integer.compare(o1.getNumberOfAwards(), o2.getNumberOfAwards());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(sortedActors);
-                }
-                for (Actor actor : actors) {
-                    // After use, we have to reset each number of awards
-                    actor.setNumberOfAwards(0);
-                }
+                sortedActors.sort(inSortOrder(ACTORS_BY_AWARDS, sortType));
                 break;
 
             case "filter_description":
-                for (Actor actor : actors) {
-                    if (actor.hasKeyWords(filters.get(2))) {
-                        sortedActors.add(actor);
-                    }
-                }
-                Collections.sort(sortedActors, new Comparator<Actor>() {
-                    @Override
-                    public int compare(final Actor o1, final Actor o2) {
-                        return o1.getName().compareTo(o2.getName());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(sortedActors);
-                }
+                // The index gives the Actors sorted by name, so this sort only
+                // has to reverse them for a descending query
+                sortedActors.addAll(data.getDescriptionIndex().select(filters.get(2)));
+                sortedActors.sort(inSortOrder(ACTORS_BY_NAME, sortType));
                 break;
 
             default:
@@ -134,6 +207,30 @@ public class QueryAction {
         return sortedActors;
     }
 
+    /**
+     * Checks if a ratings query returns no Shows because it is asked for
+     * number 0. Such a query counts down from 0 and stops at the first Show
+     * that is not rated, so in ascending order it stops before any Show if
+     * one of them is not rated. Otherwise, it returns all the rated Shows.
+     * @param shows The Shows that are queried
+     * @param number How many Shows the query asks for
+     * @param sortType The order of the query
+     * @param criteria The type of the query
+     * @return true if the query returns no Shows, false otherwise
+     */
+    private static boolean stopsAtUnrated(final List<? extends Show> shows, final int number,
+                                          final String sortType, final String criteria) {
+        if (number != 0 || !criteria.equals("ratings") || !sortType.equals("asc")) {
+            return false;
+        }
+        for (Show show : shows) {
+            if (show.getFinalRating() == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Executes a query on Shows, depending on the given parameters. This
      * function works the same way for Movies and Serials. It uses parameter
@@ -156,182 +253,84 @@ public class QueryAction {
     public List<Show> queryShows(final int number, final List<List<String>> filters,
                                  final String sortType, final String criteria,
                                  final String showType) {
-        // List of Movies from our Database
-        List<Movie> movies = data.getMoviesList();
-
-        // List of Serials from our Database
-        List<Serial> serials = data.getSerialsList();
-
-        // List of Shows that will be filtered
-        List<Show> showsToFilter = new ArrayList<>();
-
-        // List of Shows that have been filtered so far
+        // List of Shows that have been filtered
         List<Show> filteredShows = new ArrayList<>();
 
-        // This will be the result of the query
-        List<Show> sortedShows = new ArrayList<>();
-
-        // Build the list of Shows that will be queried
+        // The index and the leaderboards of the Shows that will be queried
+        ShowIndex showIndex;
+        ShowLeaderboards leaderboards;
         if (showType.equals("movies")) {
-            showsToFilter.addAll(movies);
+            showIndex = data.getShowCatalog().getMovieIndex();
+            leaderboards = data.getMovieLeaderboards();
         } else {
-            showsToFilter.addAll(serials);
+            showIndex = data.getShowCatalog().getSerialIndex();
+            leaderboards = data.getSerialLeaderboards();
         }
 
         if (filters != null) {
-            // Apply First filter (for year)
+            // First filter (for year)
             List<String> years = filters.get(0);
-
+            Integer year = null;
             if (years.get(0) != null) {
-                int year = Integer.parseInt(years.get(0));
-                for (Show show : showsToFilter) {
-                    if (show.getYear() == year) {
-                        filteredShows.add(show);
-                    }
-                }
-            } else {
-                // There is no year filter
-                filteredShows.addAll(showsToFilter);
+                year = Integer.parseInt(years.get(0));
             }
 
-            // Apply Second filter (for genres)
+            // Second filter (for genres)
             List<String> genres = filters.get(1);
 
-            if (genres.get(0) != null) {
-                // Reset lists used for filtering
-                showsToFilter.clear();
-                showsToFilter.addAll(filteredShows);
-                filteredShows.clear();
+            ShowLeaderboard leaderboard = leaderboards.get(criteria);
+            if (year == null && genres.get(0) == null && leaderboard != null) {
+                if (stopsAtUnrated(showIndex.getShows(), number, sortType, criteria)) {
+                    return new ArrayList<>();
+                }
+                // No filters, so the result is at the top of the leaderboard
+                return selectFirst(leaderboard, number, sortType.equals("desc"));
+            }
 
+            if (genres.get(0) != null) {
+                // The index applies both filters for each genre
                 for (String genre : genres) {
-                    for (Show show : showsToFilter) {
-                        if (show.getGenres().contains(genre)) {
-                            filteredShows.add(show);
-                        }
-                    }
+                    filteredShows.addAll(showIndex.select(year, Utils.stringToGenre(genre)));
                 }
+            } else {
+                filteredShows.addAll(showIndex.select(year));
             }
         }
 
-        // Compute all the data we need for any kind of query on Shows. We
-        // must reset this data after use.
-        for (Show show : filteredShows) {
-            show.computeTimesFavorite(data);
-            show.computeTimesViewed(data);
-            show.computeRating();
+        if (stopsAtUnrated(filteredShows, number, sortType, criteria)) {
+            return new ArrayList<>();
         }
 
-        switch (criteria) {
-            case "ratings":
-                Collections.sort(filteredShows, new Comparator<Show>() {
-                    @Override
-                    public int compare(final Show o1, final Show o2) {
-                        if (o1.getFinalRating() == o2.getFinalRating()) {
-                            return o1.getTitle().compareTo(o2.getTitle());
-                        }
-                        return Double.compare(o1.getFinalRating(), o2.getFinalRating());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(filteredShows);
-                }
-                int showsToAdd = number;
-                for (Show show : filteredShows) {
-                    if (show.getFinalRating() > 0) {
-                        sortedShows.add(show);
-                        showsToAdd--;
-                    }
-                    if (showsToAdd == 0) {
-                        break;
-                    }
-                }
-                break;
-
-            case "favorite":
-                Collections.sort(filteredShows, new Comparator<Show>() {
-                    @Override
-                    public int compare(final Show o1, final Show o2) {
-                        if (o1.getTimesFavorite() == o2.getTimesFavorite()) {
-                            return o1.getTitle().compareTo(o2.getTitle());
-                        }
-                        return Integer.compare(o1.getTimesFavorite(), o2.getTimesFavorite());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(filteredShows);
-                }
-                showsToAdd = number;
-                for (Show show : filteredShows) {
-                    if (show.getTimesFavorite() != 0) {
-                        sortedShows.add(show);
-                        showsToAdd--;
-                        if (showsToAdd == 0) {
-                            break;
-                        }
-                    }
-                }
-                break;
-
-            case "longest":
-                Collections.sort(filteredShows, new Comparator<Show>() {
-                    @Override
-                    public int compare(final Show o1, final Show o2) {
-                        if (o1.getTotalDuration() == o2.getTotalDuration()) {
-                            return o1.getTitle().compareTo(o2.getTitle());
-                        }
-                        return Integer.compare(o1.getTotalDuration(), o2.getTotalDuration());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(filteredShows);
-                }
-                showsToAdd = number;
-                for (Show show : filteredShows) {
-                    sortedShows.add(show);
-                    showsToAdd--;
-                    if (showsToAdd == 0) {
-                        break;
-                    }
-                }
-                break;
-
-            case "most_viewed":
-                Collections.sort(filteredShows, new Comparator<Show>() {
-                    @Override
-                    public int compare(final Show o1, final Show o2) {
-                        if (o1.getTimesViewed() == o2.getTimesViewed()) {
-                            return o1.getTitle().compareTo(o2.getTitle());
-                        }
-                        return Integer.compare(o1.getTimesViewed(), o2.getTimesViewed());
-                    }
-                });
-                if (sortType.equals("desc")) {
-                    Collections.reverse(filteredShows);
-                }
-                showsToAdd = number;
-                for (Show show : filteredShows) {
-                    if (show.getTimesViewed() > 0) {
-                        sortedShows.add(show);
-                        showsToAdd--;
-                        if (showsToAdd == 0) {
-                            break;
-                        }
-                    }
-                }
-                break;
+        return switch (criteria) {
+            case "ratings" -> selectFirst(filteredShows, number,
+                    inSortOrder(SHOWS_BY_RATING, sortType), show -> show.getFinalRating() > 0);
+            case "favorite" -> selectFirst(filteredShows, number,
+                    inSortOrder(SHOWS_BY_FAVORITE, sortType), show -> show.getTimesFavorite() != 0);
+            case "longest" -> selectFirst(filteredShows, number,
+                    inSortOrder(SHOWS_BY_DURATION, sortType), show -> true);
+            case "most_viewed" -> selectFirst(filteredShows, number,
+                    inSortOrder(SHOWS_BY_VIEWS, sortType), show -> show.getTimesViewed() > 0);
+            default -> new ArrayList<>();
+        };
+    }
 
-            default:
+    /**
+     * Takes the first Shows with a score higher than 0 from a leaderboard.
+     * @param leaderboard The leaderboard of a query criteria
+     * @param number How many Shows are selected (all of them if number <= 0)
+     * @param descending true to start from the highest score
+     * @return The selected Shows
+     */
+    private static List<Show> selectFirst(final ShowLeaderboard leaderboard, final int number,
+                                          final boolean descending) {
+        List<Show> selectedShows = new ArrayList<>();
+        for (Show show : leaderboard.getShowsWithScore(descending)) {
+            if (number > 0 && selectedShows.size() == number) {
                 break;
+            }
+            selectedShows.add(show);
         }
-
-        // Reset the computed data, so that we can update/reuse it later
-        for (Show show : filteredShows) {
-            show.setFinalRating(0);
-            show.setTimesFavorite(0);
-            show.setTimesViewed(0);
-        }
-
-        return sortedShows;
+        return selectedShows;
     }
 
     /**
@@ -349,40 +348,9 @@ public class QueryAction {
         // This will be the result of the query
         List<User> sortedUsers = new ArrayList<>();
 
-        for (User user : users) {
-            // Compute the numberOfRatings that each user has given so far
-            user.computeNoRatings();
-        }
-
         if (criteria.equals("num_ratings")) {
-            Collections.sort(users, new Comparator<User>() {
-                @Override
-                public int compare(final User o1, final User o2) {
-                    if (o1.getNoRatings() == o2.getNoRatings()) {
-                        return o1.getUsername().compareTo(o2.getUsername());
-                    }
-                    return Integer.compare(o1.getNoRatings(), o2.getNoRatings());
-                }
-            });
-            if (sortType.equals("desc")) {
-                Collections.reverse(users);
-            }
-            int usersToAdd = number;
-            for (User user : users) {
-                if (user.getNoRatings() > 0) {
-                    sortedUsers.add(user);
-                    usersToAdd--;
-                    if (usersToAdd == 0) {
-                        break;
-                    }
-                }
-            }
-        }
-
-        for (User user : users) {
-            // Reset the numberOfRatings for each User (so that we can recompute
-            // it later, with new information)
-            user.setNoRatings(0);
+            sortedUsers = selectFirst(users, number, inSortOrder(USERS_BY_RATINGS, sortType),
+                    user -> user.getNoRatings() > 0);
         }
 
         return sortedUsers;
@@ -30,52 +30,27 @@ public class RecommendAction {
      *         hasn't watched yet.
      */
     public String getStandard(final User user) {
-        // List of all the Shows from our current Database
-        List<Show> shows = new ArrayList<>();
-        shows.addAll(data.getMoviesList());
-        shows.addAll(data.getSerialsList());
-
-        for (Show show : shows) {
-            if (!user.getWatchHistory().containsKey(show.getTitle())) {
-                // Return first unseen Show
-                return "StandardRecommendation result: " + show.getTitle();
-            }
+        // The first Show (in Database order) that the User hasn't watched
+        int showId = user.firstUnseen();
+        if (showId < data.getShowCatalog().size()) {
+            return "StandardRecommendation result: "
+                    + data.getShowCatalog().getShow(showId).getTitle();
         }
 
         return "StandardRecommendation cannot be applied!";
     }
 
     /**
-     * Gives the User a BestRatedUnseen recommendation. First, sorts all Shows
-     * by their finalRatings in descending order.
+     * Gives the User a BestRatedUnseen recommendation. All the Shows are kept
+     * sorted by their finalRatings (ties in Database order) by the Database.
      * @param user User that required this recommendation
      * @return The title of the best rated Show from our Database that the User
      *         hasn't watched yet.
      */
     public String getBestUnseen(final User user) {
-        // List of all the Shows from our current Database
-        List<Show> shows = new ArrayList<>();
-        shows.addAll(data.getMoviesList());
-        shows.addAll(data.getSerialsList());
-
-        // Sort them by their rating, in descending order
-        for (Show show : shows) {
-            // Compute rating for each Show. It must be reset after use.
-            show.computeRating();
-        }
-        Collections.sort(shows, new Comparator<Show>() {
-            @Override
-            public int compare(final Show o1, final Show o2) {
-                return Double.compare(o2.getFinalRating(), o1.getFinalRating());
-            }
-        });
-        for (Show show : shows) {
-            // Reset rating for each Show
-            show.setFinalRating(0);
-        }
-
-        for (Show show : shows) {
-            if (!user.getWatchHistory().containsKey(show.getTitle())) {
+        // Go through all the Shows, from the best rated one
+        for (Show show : data.getBestRated().getShows(true)) {
+            if (!user.hasSeen(show.getTitleId())) {
                 // Return first unseen Show from the sorted list
                 return "BestRatedUnseenRecommendation result: " + show.getTitle();
             }
@@ -98,31 +73,26 @@ public class RecommendAction {
             return "PopularRecommendation cannot be applied!";
         }
 
-        // List of all the Shows from our current Database
-        List<Show> shows = new ArrayList<>();
-        shows.addAll(data.getMoviesList());
-        shows.addAll(data.getSerialsList());
-
         /**
          * A local class used to sort Genres by their popularity
          */
         class GenrePopularity {
             /**
-             * Name of the genre
+             * The genre
              */
-            private final String name;
+            private final Genre genre;
             /**
              * Popularity of the genre (number of watches)
              */
             private final int popularity;
 
-            GenrePopularity(final String name, final int popularity) {
-                this.name = name;
+            GenrePopularity(final Genre genre, final int popularity) {
+                this.genre = genre;
                 this.popularity = popularity;
             }
 
-            public String getName() {
-                return name;
+            public Genre getGenre() {
+                return genre;
             }
 
             public int getPopularity() {
@@ -133,25 +103,10 @@ public class RecommendAction {
         // The list of genres that will be sorted by most popular
         List<GenrePopularity> genres = new ArrayList<>();
 
-        // Compute popularity for each Genre
+        // The popularity of each Genre is the sum of timesViewed of the Shows
+        // that have this genre (kept up to date by the Database)
         for (Genre genre : Genre.values()) {
-            // The Shows that have this Genre
-            List<Show> filteredShows = new ArrayList<>();
-            for (Show show : shows) {
-                if (show.getGenres().contains(Utils.genreToString(genre))) {
-                    filteredShows.add(show);
-                }
-            }
-            // The popularity is the sum of timesViewed of the Shows that have
-            // this genre
-            int popularity = 0;
-            for (Show show : filteredShows) {
-                show.computeTimesViewed(data); // Compute timesViewed
-                popularity += show.getTimesViewed();
-                show.setTimesViewed(0); // Reset timesViewed (for later use)
-            }
-
-            genres.add(new GenrePopularity(Utils.genreToString(genre), popularity));
+            genres.add(new GenrePopularity(genre, data.getGenreViews(genre)));
         }
         Collections.sort(genres, new Comparator<GenrePopularity>() {
             @Override
@@ -163,11 +118,9 @@ public class RecommendAction {
 
         // For the most popular Genre, get the first unseen Show for this User
         for (GenrePopularity genre : genres) {
-            for (Show show : shows) {
-                if (show.getGenres().contains(genre.name)) {
-                    if (!user.getWatchHistory().containsKey(show.getTitle())) {
-                        return "PopularRecommendation result: " + show.getTitle();
-                    }
+            for (Show show : data.getShowCatalog().getShows(genre.genre)) {
+                if (!user.hasSeen(show.getTitleId())) {
+                    return "PopularRecommendation result: " + show.getTitle();
                 }
             }
         }
@@ -187,44 +140,15 @@ public class RecommendAction {
             return "FavoriteRecommendation cannot be applied!";
         }
 
-        // List of all the Shows in our current Database
-        List<Show> shows = new ArrayList<>();
-        shows.addAll(data.getMoviesList());
-        shows.addAll(data.getSerialsList());
-
-        // Sort these Shows by timesFavorite, in descending order
-        for (Show show : shows) {
-            // Compute timesFavorite for each Show
-            show.computeTimesFavorite(data);
-        }
-        Collections.sort(shows, new Comparator<Show>() {
-            @Override
-            public int compare(final Show o1, final Show o2) {
-                return Integer.compare(o2.getTimesFavorite(), o1.getTimesFavorite());
-            }
-        });
-
-        // Needs to use variable found in order to iterate through the entire
-        // list of Shows before returning result (in order to reset timesFavorite)
-        boolean found = false;
-        String result = "";
-
-        for (Show show : shows) {
-            if (show.getTimesFavorite() != 0) {
-                show.setTimesFavorite(0); // Reset timesFavorite for each Show
-
-                if (!user.getWatchHistory().containsKey(show.getTitle())) {
-                    if (!found) {
-                        found = true;
-                        result = "FavoriteRecommendation result: " + show.getTitle();
-                    }
-                }
+        // The Shows that are favorite for at least one User, sorted by
+        // timesFavorite in descending order (ties in Database order)
+        for (Show show : data.getMostFavorite().getShowsWithScore(true)) {
+            if (!user.hasSeen(show.getTitleId())) {
+                // Return the first unseen Show from the sorted list
+                return "FavoriteRecommendation result: " + show.getTitle();
             }
         }
 
-        if (found) {
-            return result;
-        }
         return "FavoriteRecommendation cannot be applied!";
     }
 
@@ -241,40 +165,17 @@ public class RecommendAction {
             return "SearchRecommendation cannot be applied!";
         }
 
-        // List of all the Shows in our current Database
-        List<Show> shows = new ArrayList<>();
-        shows.addAll(data.getMoviesList());
-        shows.addAll(data.getSerialsList());
-
-        // Build list of the Shows that have this Genre
-        List<Show> filteredShows = new ArrayList<>();
-        for (Show show : shows) {
-            if (show.getGenres().contains(genre)) {
-                filteredShows.add(show);
-                // Compute the rating for each Show (must be reset after use)
-                show.computeRating();
-            }
-        }
-        // Sort the Shows by their rating
-        Collections.sort(filteredShows, new Comparator<Show>() {
-            @Override
-            public int compare(final Show o1, final Show o2) {
-                if (o1.getFinalRating() == o2.getFinalRating()) {
-                    return o1.getTitle().compareTo(o2.getTitle());
-                }
-                return Double.compare(o1.getFinalRating(), o2.getFinalRating());
-            }
-        });
-
-        for (Show show :shows) {
-            // Reset rating for each Show
-            show.setFinalRating(0);
+        // The Shows that have this Genre, already sorted by their rating
+        // (the rating commands keep them sorted)
+        ShowLeaderboard filteredShows = data.getRatingsByGenre(Utils.stringToGenre(genre));
+        if (filteredShows == null) {
+            return "SearchRecommendation cannot be applied!";
         }
 
         // This will be the result of the recommendation
         ArrayList<String> recommendedShows = new ArrayList<>();
-        for (Show show : filteredShows) {
-            if (!user.getWatchHistory().containsKey(show.getTitle())) {
+        for (Show show : filteredShows.getShows(false)) {
+            if (!user.hasSeen(show.getTitleId())) {
                 // Add this Show if it hasn't been watched yet
                 recommendedShows.add(show.getTitle());
             }
@@ -0,0 +1,183 @@
+package actions;
+
+import entertainment.Genre;
+import entertainment.Movie;
+import entertainment.Serial;
+import entertainment.Show;
+import utils.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Indexes the Shows (Movies and Serials) from our current Database by their
+ * title. Every Show also has an id, which is its position in the Database
+ * order (first all the Movies, then all the Serials), and the id of its title
+ * in the symbol table of the titles (the same for Shows with the same title).
+ */
+public final class ShowCatalog {
+    /**
+     * Ids of the titles
+     */
+    private final SymbolTable titleSymbols;
+    /**
+     * The Shows from our Database, where shows[id] is the Show with that id
+     */
+    private final List<Show> shows;
+    /**
+     * The Shows with each title, where showsByTitle[titleId] holds them in
+     * Database order (titles that are not the title of a Show are left out)
+     */
+    private final List<List<Show>> showsByTitle;
+    /**
+     * The id of the title of each Show, where showTitleIds[id] is the id of
+     * the title of the Show with that id
+     */
+    private final int[] showTitleIds;
+    /**
+     * Index of all the Shows, by year and by genre
+     */
+    private final ShowIndex showIndex;
+    /**
+     * Index of the Movies, by year and by genre
+     */
+    private final ShowIndex movieIndex;
+    /**
+     * Index of the Serials, by year and by genre
+     */
+    private final ShowIndex serialIndex;
+
+    /**
+     * Builds the index only once, when the Database is loaded. If a title
+     * appears more than once, the first Movie with that title is kept (or the
+     * first Serial, if there is no such Movie).
+     * @param titleSymbols Ids of the titles, where the first ids are the ids of
+     *                     the titles of the Shows
+     * @param movies The Movies from our current Database
+     * @param serials The Serials from our current Database
+     */
+    public ShowCatalog(final SymbolTable titleSymbols, final List<Movie> movies,
+                       final List<Serial> serials) {
+        this.titleSymbols = titleSymbols;
+        shows = new ArrayList<>(movies.size() + serials.size());
+        shows.addAll(movies);
+        shows.addAll(serials);
+        showsByTitle = new ArrayList<>(titleSymbols.size());
+        for (int titleId = 0; titleId < titleSymbols.size(); titleId++) {
+            showsByTitle.add(new ArrayList<>(1));
+        }
+        showTitleIds = new int[shows.size()];
+        for (Show show : shows) {
+            showsByTitle.get(show.getTitleId()).add(show);
+            showTitleIds[show.getId()] = show.getTitleId();
+        }
+
+        showIndex = new ShowIndex(shows);
+        movieIndex = new ShowIndex(movies);
+        serialIndex = new ShowIndex(serials);
+    }
+
+    /**
+     * @param title Title of the wanted Show
+     * @return The Show with this title, or null if it does not exist
+     */
+    public Show getShow(final String title) {
+        List<Show> showsWithTitle = getShowsWithTitle(title);
+        if (showsWithTitle.isEmpty()) {
+            return null;
+        }
+        return showsWithTitle.get(0);
+    }
+
+    /**
+     * @param title A title
+     * @return All the Shows with this title, in Database order (empty if
+     *         there is no such Show)
+     */
+    public List<Show> getShowsWithTitle(final String title) {
+        int titleId = titleSymbols.getId(title);
+        if (titleId < 0 || titleId >= showsByTitle.size()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(showsByTitle.get(titleId));
+    }
+
+    /**
+     * @param id Id of the wanted Show
+     * @return The Show with this id
+     */
+    public Show getShow(final int id) {
+        return shows.get(id);
+    }
+
+    /**
+     * @param title Title of the wanted Movie
+     * @return The Movie with this title, or null if there is no such Movie
+     */
+    public Movie getMovie(final String title) {
+        Show show = getShow(title);
+        if (show instanceof Movie) {
+            return (Movie) show;
+        }
+        return null;
+    }
+
+    /**
+     * @param title Title of the wanted Serial
+     * @return The Serial with this title, or null if there is no such Serial
+     */
+    public Serial getSerial(final String title) {
+        Show show = getShow(title);
+        if (show instanceof Serial) {
+            return (Serial) show;
+        }
+        return null;
+    }
+
+    /**
+     * @return All the Shows from our Database (Movies first, then Serials),
+     *         ordered by their id
+     */
+    public List<Show> getShows() {
+        return Collections.unmodifiableList(shows);
+    }
+
+    /**
+     * @param genre The wanted Genre (can be null)
+     * @return The Shows from our Database that have this Genre, ordered by
+     *         their id
+     */
+    public List<Show> getShows(final Genre genre) {
+        return showIndex.getShows(genre);
+    }
+
+    /**
+     * @return The id of the title of each Show, where showTitleIds[id] is the
+     *         id of the title of the Show with that id
+     */
+    public int[] getShowTitleIds() {
+        return showTitleIds;
+    }
+
+    /**
+     * @return The index of the Movies from our Database
+     */
+    public ShowIndex getMovieIndex() {
+        return movieIndex;
+    }
+
+    /**
+     * @return The index of the Serials from our Database
+     */
+    public ShowIndex getSerialIndex() {
+        return serialIndex;
+    }
+
+    /**
+     * @return The number of Shows from our Database
+     */
+    public int size() {
+        return shows.size();
+    }
+}
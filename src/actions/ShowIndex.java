@@ -0,0 +1,114 @@
+package actions;
+
+import entertainment.Genre;
+import entertainment.Show;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes a list of Shows by their year of release and by their genres, so
+ * that the Shows with a given year and/or genre can be found without going
+ * through all of them. Every list given by this index keeps the order of the
+ * Shows from the Database (i.e. ordered by their id).
+ */
+public final class ShowIndex {
+    /**
+     * The indexed Shows
+     */
+    private final List<Show> shows;
+    /**
+     * The Shows released in each year
+     */
+    private final Map<Integer, List<Show>> showsByYear = new HashMap<>();
+    /**
+     * The Shows that have each Genre
+     */
+    private final Map<Genre, List<Show>> showsByGenre = new EnumMap<>(Genre.class);
+
+    /**
+     * Builds the index only once, when the Database is loaded.
+     * @param shows The Shows to be indexed, ordered by their id
+     */
+    public ShowIndex(final List<? extends Show> shows) {
+        this.shows = new ArrayList<>(shows);
+
+        for (Genre genre : Genre.values()) {
+            showsByGenre.put(genre, new ArrayList<>());
+        }
+        for (Show show : shows) {
+            showsByYear.computeIfAbsent(show.getYear(), year -> new ArrayList<>()).add(show);
+            for (Genre genre : Genre.values()) {
+                if (show.hasGenre(genre)) {
+                    showsByGenre.get(genre).add(show);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return All the indexed Shows
+     */
+    public List<Show> getShows() {
+        return Collections.unmodifiableList(shows);
+    }
+
+    /**
+     * @param genre The wanted Genre (can be null)
+     * @return The Shows that have this Genre
+     */
+    public List<Show> getShows(final Genre genre) {
+        if (genre == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(showsByGenre.get(genre));
+    }
+
+    /**
+     * @param year The wanted year of release (null if any year is good)
+     * @return The Shows released in this year
+     */
+    public List<Show> select(final Integer year) {
+        if (year == null) {
+            return getShows();
+        }
+        return Collections.unmodifiableList(showsByYear.getOrDefault(year,
+                Collections.emptyList()));
+    }
+
+    /**
+     * Finds the Shows that have both the given year and the given Genre. It
+     * starts from the smaller of the two lists (year or genre) and checks the
+     * other filter for each of its Shows.
+     * @param year The wanted year of release (null if any year is good)
+     * @param genre The wanted Genre (can be null, then no Show has it)
+     * @return The Shows released in this year that have this Genre
+     */
+    public List<Show> select(final Integer year, final Genre genre) {
+        List<Show> withGenre = getShows(genre);
+        if (year == null) {
+            return withGenre;
+        }
+        List<Show> fromYear = select(year);
+
+        List<Show> result = new ArrayList<>();
+        if (fromYear.size() <= withGenre.size()) {
+            for (Show show : fromYear) {
+                if (show.hasGenre(genre)) {
+                    result.add(show);
+                }
+            }
+        } else {
+            for (Show show : withGenre) {
+                if (show.getYear() == year) {
+                    result.add(show);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,150 @@
+package actions;
+
+import entertainment.Show;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps a list of Shows always sorted by a score (for example their number of
+ * views), so that the first Shows in this order can be found without sorting
+ * all of them. The score of a Show is read again only when the Show is
+ * updated, so update must be called every time the score of a Show changes.
+ * Different Shows can be updated by more threads at the same time, but the
+ * updates of one Show must not overlap (the Database holds the lock of the
+ * Show while it updates it).
+ */
+public final class ShowLeaderboard {
+    /**
+     * Placed after every entry with score 0 and before every entry with a
+     * higher score
+     */
+    private static final Entry LAST_ZERO = new Entry(0, null);
+
+    /**
+     * Gives the score of a Show
+     */
+    private final ToDoubleFunction<Show> score;
+    /**
+     * The order of the Shows that have the same score
+     */
+    private final Comparator<Show> tieBreak;
+    /**
+     * The Shows, sorted by the score they had when they were last updated
+     */
+    private final NavigableSet<Entry> entries;
+    /**
+     * The current entry of each Show
+     */
+    private final Map<Show, Entry> entryOfShow = new ConcurrentHashMap<>();
+
+    /**
+     * A Show together with its score from its last update
+     */
+    private static final class Entry {
+        /**
+         * The score of the Show
+         */
+        private final double score;
+        /**
+         * The Show (null only for LAST_ZERO)
+         */
+        private final Show show;
+
+        Entry(final double score, final Show show) {
+            this.score = score;
+            this.show = show;
+        }
+    }
+
+    /**
+     * @param shows The Shows in this leaderboard
+     * @param score Gives the score of a Show
+     * @param tieBreak The order of the Shows that have the same score (it must
+     *                 never consider two different Shows equal)
+     */
+    public ShowLeaderboard(final List<? extends Show> shows, final ToDoubleFunction<Show> score,
+                           final Comparator<Show> tieBreak) {
+        this.score = score;
+        this.tieBreak = tieBreak;
+        this.entries = new ConcurrentSkipListSet<>(this::compare);
+        for (Show show : shows) {
+            Entry entry = new Entry(score.applyAsDouble(show), show);
+            entries.add(entry);
+            entryOfShow.put(show, entry);
+        }
+    }
+
+    /**
+     * Orders the entries by score, then by tieBreak.
+     * @param o1 First entry
+     * @param o2 Second entry
+     * @return the result of the comparison
+     */
+    private int compare(final Entry o1, final Entry o2) {
+        int byScore = Double.compare(o1.score, o2.score);
+        if (byScore != 0 || o1.show == o2.show) {
+            return byScore;
+        }
+        if (o1.show == null) {
+            return 1;
+        }
+        if (o2.show == null) {
+            return -1;
+        }
+        return tieBreak.compare(o1.show, o2.show);
+    }
+
+    /**
+     * Moves a Show to its place, according to its current score. Shows that
+     * are not in this leaderboard are ignored.
+     * @param show The Show whose score has changed
+     */
+    public void update(final Show show) {
+        Entry oldEntry = entryOfShow.get(show);
+        if (oldEntry == null) {
+            return;
+        }
+        entries.remove(oldEntry);
+        Entry newEntry = new Entry(score.applyAsDouble(show), show);
+        entries.add(newEntry);
+        entryOfShow.put(show, newEntry);
+    }
+
+    /**
+     * @param descending true to go from the highest score to the lowest one
+     * @return All the Shows, sorted by their score
+     */
+    public Iterable<Show> getShows(final boolean descending) {
+        return showsOf(entries, descending);
+    }
+
+    /**
+     * @param descending true to go from the highest score to the lowest one
+     * @return The Shows with a score higher than 0, sorted by their score
+     */
+    public Iterable<Show> getShowsWithScore(final boolean descending) {
+        return showsOf(entries.tailSet(LAST_ZERO, false), descending);
+    }
+
+    /**
+     * @param view Some of the entries
+     * @param descending true to go through them in reverse order
+     * @return The Shows of these entries
+     */
+    private static Iterable<Show> showsOf(final NavigableSet<Entry> view,
+                                          final boolean descending) {
+        NavigableSet<Entry> ordered;
+        if (descending) {
+            ordered = view.descendingSet();
+        } else {
+            ordered = view;
+        }
+        return () -> ordered.stream().map(entry -> entry.show).iterator();
+    }
+}
@@ -0,0 +1,80 @@
+package actions;
+
+import entertainment.Show;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The leaderboards of one type of Shows (Movies or Serials) for the criteria
+ * of the queries on Shows: most_viewed, favorite and ratings. The commands
+ * keep them up to date, so that a query without filters only has to go
+ * through the first Shows of a leaderboard.
+ */
+public final class ShowLeaderboards {
+    /**
+     * Orders the Shows with the same score by their title, like the queries
+     * and the Search recommendation do (then by id, like a stable sort)
+     */
+    static final Comparator<Show> BY_TITLE = Comparator.comparing(Show::getTitle)
+            .thenComparingInt(Show::getId);
+
+    /**
+     * Shows sorted by timesViewed
+     */
+    private final ShowLeaderboard mostViewed;
+    /**
+     * Shows sorted by timesFavorite
+     */
+    private final ShowLeaderboard favorite;
+    /**
+     * Shows sorted by finalRating
+     */
+    private final ShowLeaderboard ratings;
+
+    /**
+     * @param shows The Shows of one type from our Database
+     */
+    public ShowLeaderboards(final List<? extends Show> shows) {
+        mostViewed = new ShowLeaderboard(shows, Show::getTimesViewed, BY_TITLE);
+        favorite = new ShowLeaderboard(shows, Show::getTimesFavorite, BY_TITLE);
+        ratings = new ShowLeaderboard(shows, Show::getFinalRating, BY_TITLE);
+    }
+
+    /**
+     * @param criteria The criteria of a query on Shows
+     * @return The leaderboard for this criteria, or null if there is none
+     */
+    public ShowLeaderboard get(final String criteria) {
+        return switch (criteria) {
+            case "most_viewed" -> mostViewed;
+            case "favorite" -> favorite;
+            case "ratings" -> ratings;
+            default -> null;
+        };
+    }
+
+    /**
+     * Updates the leaderboards after a Show was viewed.
+     * @param show The viewed Show
+     */
+    public void updateViews(final Show show) {
+        mostViewed.update(show);
+    }
+
+    /**
+     * Updates the leaderboards after a Show was added to favorites.
+     * @param show The favorite Show
+     */
+    public void updateFavorites(final Show show) {
+        favorite.update(show);
+    }
+
+    /**
+     * Updates the leaderboards after a Show was rated.
+     * @param show The rated Show
+     */
+    public void updateRating(final Show show) {
+        ratings.update(show);
+    }
+}
@@ -0,0 +1,54 @@
+package actions;
+
+import user.User;
+import utils.SymbolTable;
+
+import java.util.List;
+
+/**
+ * Indexes the Users from our current Database by their username, so that the
+ * User that gives a Command or asks for a Recommendation can be found with a
+ * single lookup.
+ */
+public final class UserRegistry {
+    /**
+     * Returned for every username that does not exist in this Database
+     */
+    private static final User UNKNOWN_USER = new User();
+    /**
+     * Ids of the usernames
+     */
+    private final SymbolTable userSymbols;
+    /**
+     * The Users from our Database, where usersById[id] is the User with that
+     * id (if more Users have the same username, the last one is kept)
+     */
+    private final User[] usersById;
+
+    /**
+     * Builds the index only once, when the Database is loaded.
+     * @param userSymbols Ids of the usernames
+     * @param users The Users from our current Database
+     */
+    public UserRegistry(final SymbolTable userSymbols, final List<User> users) {
+        this.userSymbols = userSymbols;
+        usersById = new User[userSymbols.size()];
+        for (User user : users) {
+            usersById[user.getId()] = user;
+        }
+    }
+
+    /**
+     * Finds the User with the given username.
+     * @param username Username of the wanted User
+     * @return The User with this username, or a User with no username (and no
+     *         data) if the username does not exist in our Database
+     */
+    public User getUser(final String username) {
+        int id = userSymbols.getId(username);
+        if (id < 0) {
+            return UNKNOWN_USER;
+        }
+        return usersById[id];
+    }
+}
@@ -2,18 +2,20 @@ package actor;
 
 import entertainment.Movie;
 import entertainment.Serial;
+import utils.KeywordMatcher;
 import utils.Utils;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Information about an Actor
  */
 public final class Actor {
+    /**
+     * Id of the actor (its position in the Database)
+     */
+    private final int id;
     /**
      * Name of the actor
      */
@@ -37,53 +39,64 @@ public final class Actor {
     /**
      * Number of received awards
      */
-    private int numberOfAwards;
+    private final int numberOfAwards;
+    /**
+     * The awards received by the actor, with the bit of each award set (see
+     * Utils.awardBit)
+     */
+    private final int awardsMask;
     /**
      * Rating of the actor, given by the average of the ratings of the shows
-     * in filmography.
+     * in filmography (updated every time one of them receives a rating).
      */
     private double rating;
 
-    public Actor(final String name, final Map<ActorsAwards, Integer> awards,
+    public Actor(final int id, final String name, final Map<ActorsAwards, Integer> awards,
                  final ArrayList<Movie> moviesFilmography, final String careerDescription,
                  final ArrayList<Serial> serialsFilmography) {
+        this.id = id;
         this.name = name;
         this.careerDescription = careerDescription;
         this.moviesFilmography = moviesFilmography;
         this.serialsFilmography = serialsFilmography;
         this.awards = awards;
-        this.rating = 0;
+        // The awards never change, so they are counted only once
+        int totalAwards = 0;
+        int mask = 0;
+        for (Map.Entry<ActorsAwards, Integer> awardEntry : awards.entrySet()) {
+            totalAwards += awardEntry.getValue();
+            mask |= Utils.awardBit(awardEntry.getKey());
+        }
+        this.numberOfAwards = totalAwards;
+        this.awardsMask = mask;
+        updateRating();
     }
 
     /**
      * Calculates the rating of the Actor as average of the ratings of all
-     * the Shows from their filmography. The rating must always be computed
-     * before using its getter. After use, the rating must be reset to 0
-     * with its setter (So that if we need to update it later, its value
-     * will not stack).
+     * the Shows from their filmography. Must be called every time one of
+     * these Shows receives a rating (the Database does it), so that reading
+     * the rating never changes the Actor. It is synchronized, so that when
+     * two Shows are rated at the same time, the last update sees both ratings.
      */
-    public void computeRating() {
+    public synchronized void updateRating() {
         double sum = 0;
         int noShows = 0;
 
         // The movies they played in
         for (Movie movie : moviesFilmography) {
-            movie.computeRating();
             if (movie.getFinalRating() != 0) {
                 sum += movie.getFinalRating();
                 noShows++;
             }
-            movie.setFinalRating(0);
         }
 
         // The serials they played in
         for (Serial serial : serialsFilmography) {
-            serial.computeRating();
             if (serial.getFinalRating() != 0) {
                 sum += serial.getFinalRating();
                 noShows++;
             }
-            serial.setFinalRating(0);
         }
 
         if (noShows > 0) {
@@ -94,60 +107,39 @@ public final class Actor {
     }
 
     /**
-     * Check if the Actor has received *all* the awards from the list of awards
+     * Check if the Actor has received *all* the awards from the set of awards
      * given as parameter.
-     * @param wantedAwards The awards we search for
+     * @param wantedAwards The bits of the awards we search for (see
+     *                     Utils.awardsToMask)
      * @return false if at least one award does not exist in the Actor's awards
      *         list, true otherwise.
      */
-    public boolean hasAwards(final List<String> wantedAwards) {
-        for (String award : wantedAwards) {
-            if (!awards.containsKey(Utils.stringToAwards(award))) {
-                return false;
-            }
-        }
-        return true;
+    public boolean hasAwards(final int wantedAwards) {
+        return (awardsMask & wantedAwards) == wantedAwards;
     }
 
     /**
-     * Compute the total numberOfAwards that the Actor has received so far.
-     * The numberOfAwards must always be computed before using its getter.
-     * After use, the numberOfAwards must be reset to 0 with its setter (So that
-     * if we need to use it again later, it will not stack its value)
+     * Checks if the Actor's careerDescription contains *all* the keyWords of
+     * a query.
+     * @param keyWords The keyWords that we look for, compiled only once
+     * @return true if all the keyWords have been found
      */
-    public void computeNoAwards() {
-        for (Map.Entry<ActorsAwards, Integer> awardEntry : awards.entrySet()) {
-            numberOfAwards += awardEntry.getValue();
-        }
+    public boolean hasKeyWords(final KeywordMatcher keyWords) {
+        return keyWords.matchesAll(careerDescription);
     }
 
-    /**
-     * Uses regex to check if the Actor's careerDescription contains *all* the
-     * keyWords from the list of keyWords given as parameter.
-     * @param keyWords List of keyWords that we look for
-     * @return true if all the keyWords have been found
-     */
-    public boolean hasKeyWords(final List<String> keyWords) {
-        for (String keyWord : keyWords) {
-
-            Pattern pattern = Pattern.compile("[ .,-]" + keyWord + "[ .,-]",
-                    Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(careerDescription);
-
-            boolean matchFound = matcher.find();
-            if (matchFound) {
-                continue;
-            } else {
-                return false;
-            }
-        }
-        return true;
+    public int getId() {
+        return id;
     }
 
     public String getName() {
         return name;
     }
 
+    public String getCareerDescription() {
+        return careerDescription;
+    }
+
     public int getNumberOfAwards() {
         return numberOfAwards;
     }
@@ -160,14 +152,6 @@ public final class Actor {
         return awards;
     }
 
-    public void setNumberOfAwards(final int numberOfAwards) {
-        this.numberOfAwards = numberOfAwards;
-    }
-
-    public void setRating(final double rating) {
-        this.rating = rating;
-    }
-
     @Override
     public String toString() {
         return name;
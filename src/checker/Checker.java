@@ -71,6 +71,7 @@ public final class Checker {
     public void iterateFiles(final String dirOutPath, final String dirRefPath,
                              final String inputPath) throws IOException {
         int score = 0;
+        int maxScore = 0;
         int length;
 
         File dirOut = new File(dirOutPath);
@@ -103,6 +104,12 @@ public final class Checker {
             for (int i = 0; i < listOut.size(); i++) {
 
                 length = Constants.MAX_LENGTH - inputDir[i].getName().length();
+                if (inputDir[i].getName().contains(Constants.LARGE)
+                        || inputDir[i].getName().contains(Constants.NO_VALUES)) {
+                    maxScore += Constants.LARGE_TEST;
+                } else {
+                    maxScore += Constants.SINGLE_TEST;
+                }
                 if (compareQueries(listRefs.get(i), listOut.get(i))) {
 
                     char[] chars = new char[length];
@@ -136,7 +143,7 @@ public final class Checker {
         }
 
         System.out.println("-----------------------------");
-        System.out.println("TOTAL = " + score + "/80");
+        System.out.println("TOTAL = " + score + "/" + maxScore);
     }
 
 
@@ -11,48 +11,50 @@ public final class Movie extends Show {
      */
     private final int duration;
     /**
-     * List of ratings received so far
+     * Sum of the ratings received so far
      */
-    private final ArrayList<Double> ratingsList;
+    private double ratingsSum;
+    /**
+     * Number of ratings received so far
+     */
+    private int noRatings;
+    /**
+     * Average of the ratings received so far (volatile, so that it can be read
+     * without the lock of the Movie)
+     */
+    private volatile double finalRating;
 
-    public Movie(final String title, final int year, final int duration,
-                 final ArrayList<String> genres, final ArrayList<String> cast) {
-        super(title, year, genres, cast);
+    public Movie(final int id, final int titleId, final String title, final int year,
+                 final int duration, final ArrayList<String> genres,
+                 final ArrayList<String> cast) {
+        // The totalDuration of a Movie is the same as its duration
+        super(id, titleId, title, year, genres, cast, duration);
         this.duration = duration;
-        this.ratingsList = new ArrayList<>();
+        this.ratingsSum = 0;
+        this.noRatings = 0;
+        this.finalRating = 0;
     }
 
     /**
-     * Updates the list of ratings that have been received so far.
+     * Updates the sum and the number of ratings received so far.
      * @param rating The new rating to be added
      */
     public void receiveRating(final double rating) {
-        ratingsList.add(rating);
+        ratingsSum += rating;
+        noRatings++;
+        finalRating = ratingsSum / noRatings;
     }
 
     /**
-     * Computes finalRating as average of ratings received so far.
+     * Gives finalRating as average of ratings received so far.
      */
     @Override
-    public void computeRating() {
-        if (ratingsList.size() > 0) {
-            double sum = 0;
-            for (Double rating : ratingsList) {
-                sum += rating;
-            }
-            this.finalRating = sum / ratingsList.size();
-
-        } else {
-            this.finalRating = 0;
-        }
+    public double getFinalRating() {
+        return finalRating;
     }
 
-    /**
-     * Computes the totalDuration of the Movie, which is the same as its
-     * duration.
-     */
     @Override
-    public void computeTotalDuration() {
-        totalDuration = duration;
+    public int getNoRatings() {
+        return noRatings;
     }
 }
@@ -1,8 +1,5 @@
 package entertainment;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Information about a season of a TV show
  * <p>
@@ -18,14 +15,28 @@ public final class Season {
      */
     private int duration;
     /**
-     * List of ratings for each season
+     * Sum of the ratings received so far
+     */
+    private double ratingsSum;
+    /**
+     * Number of ratings received so far
      */
-    private List<Double> ratings;
+    private int noRatings;
 
     public Season(final int currentSeason, final int duration) {
         this.currentSeason = currentSeason;
         this.duration = duration;
-        this.ratings = new ArrayList<>();
+        this.ratingsSum = 0;
+        this.noRatings = 0;
+    }
+
+    /**
+     * Adds a new rating to the sum and the number of ratings.
+     * @param rating The new rating
+     */
+    public void receiveRating(final double rating) {
+        ratingsSum += rating;
+        noRatings++;
     }
 
     public int getCurrentSeason() {
@@ -40,12 +51,12 @@ public final class Season {
         this.duration = duration;
     }
 
-    public List<Double> getRatings() {
-        return ratings;
+    public double getRatingsSum() {
+        return ratingsSum;
     }
 
-    public void setRatings(final List<Double> ratings) {
-        this.ratings = ratings;
+    public int getNoRatings() {
+        return noRatings;
     }
 
     @Override
@@ -14,62 +14,77 @@ public final class Serial extends Show {
      * List of seasons
      */
     private final ArrayList<Season> seasons;
+    /**
+     * The sum of the ratings of all Seasons divided by the number of Seasons
+     * (volatile, so that it can be read without the lock of the Serial)
+     */
+    private volatile double finalRating;
 
-    public Serial(final String title, final int year, final int numberOfSeasons,
-                  final ArrayList<String> genres, final ArrayList<String> cast,
-                  final ArrayList<Season> seasons) {
-        super(title, year, genres, cast);
+    public Serial(final int id, final int titleId, final String title, final int year,
+                  final int numberOfSeasons, final ArrayList<String> genres,
+                  final ArrayList<String> cast, final ArrayList<Season> seasons) {
+        super(id, titleId, title, year, genres, cast, computeTotalDuration(seasons));
         this.numberOfSeasons = numberOfSeasons;
         this.seasons = seasons;
+        this.finalRating = 0;
     }
 
     /**
-     * Updates the list of ratings that have been received so far by one of
-     * the Seasons of this Serial.
+     * Adds a rating to one of the Seasons of this Serial and recomputes the
+     * finalRating from the sums of the Seasons.
      * @param rating The rating to be added
      * @param seasonNumber The number of the season that received the rating
      */
     public void receiveRating(final double rating, final int seasonNumber) {
+        boolean rated = false;
         for (Season season : seasons) {
             if (season.getCurrentSeason() == seasonNumber) {
-                season.getRatings().add(rating);
+                season.receiveRating(rating);
+                rated = true;
+            }
+        }
+        if (rated) {
+            double sum = 0;
+            for (Season season : seasons) {
+                sum += season.getRatingsSum();
             }
+            finalRating = sum / numberOfSeasons;
         }
     }
 
     /**
-     * Computes finalRating as average of the ratings of each Season for this
-     * Serial (if at least one Season has been rated so far).
+     * Gives finalRating as the sum of the ratings of all Seasons divided by
+     * the number of Seasons (if at least one Season has been rated so far).
      */
     @Override
-    public void computeRating() {
-        double sum = 0;
-        boolean hasOne = false;
-        for (Season season : seasons) {
-            if (season.getRatings().size() > 0) {
-                for (Double rating : season.getRatings()) {
-                    sum += rating;
-                }
-                hasOne = true; // At least one season was rated
-            }
-        }
-        if (hasOne) {
-            this.finalRating = sum / numberOfSeasons;
+    public double getFinalRating() {
+        return finalRating;
+    }
 
-        } else {
-            this.finalRating = 0;
+    /**
+     * Gives the number of ratings received so far by all the Seasons.
+     */
+    @Override
+    public int getNoRatings() {
+        int noRatings = 0;
+        for (Season season : seasons) {
+            noRatings += season.getNoRatings();
         }
+        return noRatings;
     }
 
     /**
      * Computes totalDuration of the Serial as sum of the durations of its
      * Seasons.
+     * @param seasons The Seasons of the Serial
+     * @return The totalDuration
      */
-    @Override
-    public void computeTotalDuration() {
+    private static int computeTotalDuration(final ArrayList<Season> seasons) {
+        int totalDuration = 0;
         for (Season season : seasons) {
             totalDuration += season.getDuration();
         }
+        return totalDuration;
     }
 
     public ArrayList<Season> getSeasons() {
@@ -1,15 +1,23 @@
 package entertainment;
 
-import actions.DataContainer;
-import user.User;
+import utils.Utils;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 /**
  * General information about a Show (Movie or Serial)
  */
 public abstract class Show {
+    /**
+     * Id of the show, given by its position in the Database (first all the
+     * movies, then all the serials)
+     */
+    protected final int id;
+    /**
+     * Id of the title of the show, given by the symbol table of the titles
+     * (shows with the same title share it)
+     */
+    protected final int titleId;
     /**
      * Title of the show
      */
@@ -23,84 +31,99 @@ public abstract class Show {
      */
     protected final ArrayList<String> genres;
     /**
-     * The cast playing in the show
+     * The genres of the show as a bitmask, where bit i is set if the show has
+     * the genre with ordinal i
      */
-    protected final ArrayList<String> cast;
+    protected final int genresMask;
     /**
-     * Final calculated rating of the show
+     * The cast playing in the show
      */
-    protected double finalRating;
+    protected final ArrayList<String> cast;
     /**
-     * How many users added this show to their favouriteShows list
+     * How many users added this show to their favouriteShows list (kept up
+     * to date by the favorite commands)
      */
     protected int timesFavorite;
     /**
-     * How many users viewed this show
+     * How many times users viewed this show (kept up to date by the view
+     * commands)
      */
     protected int timesViewed;
     /**
      * Total duration (for serials, add the duration of each season)
      */
-    protected int totalDuration;
+    protected final int totalDuration;
 
-    public Show(final String title, final int year,
-                final ArrayList<String> genres, final ArrayList<String> cast) {
+    public Show(final int id, final int titleId, final String title, final int year,
+                final ArrayList<String> genres, final ArrayList<String> cast,
+                final int totalDuration) {
+        this.id = id;
+        this.titleId = titleId;
         this.title = title;
         this.year = year;
         this.genres = genres;
+        this.genresMask = computeGenresMask(genres);
         this.cast = cast;
-        this.finalRating = 0;
         this.timesFavorite = 0;
         this.timesViewed = 0;
-        this.totalDuration = 0;
+        this.totalDuration = totalDuration;
     }
 
     /**
-     * Updates the value of timesFavourite for the current instance of Show.
-     * The value of timesFavourite must always be computed before using its
-     * getter. After use, timesFavourite must always be reset to 0 using setter.
-     * (So that if we need to update it again, it will not stack)
-     * @param data The current database
+     * Builds the bitmask of the given genres (genres that are not a known
+     * Genre are left out).
+     * @param genreNames The names of the genres
+     * @return The bitmask of the genres
      */
-    public void computeTimesFavorite(final DataContainer data) {
-        for (User user : data.getUsersList()) {
-            if (user.getFavoriteShows().contains(title)) {
-                timesFavorite++;
+    private static int computeGenresMask(final ArrayList<String> genreNames) {
+        int mask = 0;
+        for (String genreName : genreNames) {
+            Genre genre = Utils.stringToGenre(genreName);
+            if (genre != null) {
+                mask |= 1 << genre.ordinal();
             }
         }
+        return mask;
     }
 
     /**
-     * Updates the value of timesViewed for the current instance of Show.
-     * The value of timesViewed must always be computed before using its
-     * getter. After use, timesViewed must always be reset to 0 using setter.
-     * (So that if we need to update it again, it will not stack)
-     * @param data The current database
+     * Checks if the Show has the given genre.
+     * @param genre The wanted Genre (can be null)
+     * @return true if the Show has this genre
      */
-    public void computeTimesViewed(final DataContainer data) {
-        for (User user : data.getUsersList()) {
-            for (Map.Entry<String, Integer> showEntry : user.getWatchHistory().entrySet()) {
-                if (showEntry.getKey().equals(title)) {
-                    timesViewed += showEntry.getValue();
-                }
-            }
-        }
+    public boolean hasGenre(final Genre genre) {
+        return genre != null && (genresMask & (1 << genre.ordinal())) != 0;
+    }
+
+    /**
+     * Increments timesFavorite, when one more User adds this Show to their
+     * list of favoriteShows.
+     */
+    public void addFavorite() {
+        timesFavorite++;
+    }
+
+    /**
+     * Adds views to timesViewed, when Users watch this Show.
+     * @param views The number of new views
+     */
+    public void addViews(final int views) {
+        timesViewed += views;
     }
 
     /**
-     * Updates the value of finalRating for the current instance of Show.
-     * The value of finalRating must always be computed before using its
-     * getter. After use, finalRating must always be reset to 0 using setter.
-     * (So that if we need to update it again, it will not stack)
+     * Get the id of a Movie or Show
      */
-    public abstract void computeRating();
+    public int getId() {
+        return id;
+    }
 
     /**
-     * Calculates the value of totalDuration for the current instance of Show.
-     * The value of totalDuration will only be computed once, in class Main,
-     * for each given Database.
+     * Get the id of the title of a Movie or Show
      */
-    public abstract void computeTotalDuration();
+    public int getTitleId() {
+        return titleId;
+    }
 
     /**
      * Get the title of a Movie or Show
@@ -124,59 +147,39 @@ public abstract class Show {
     }
 
     /**
-     * Get the finalRating of a Movie or Serial. Must only be used after the function
-     * computeRating(). After use, finalRating must be reset.
+     * Get the finalRating of a Movie or Serial, given by the ratings received
+     * so far (0 if the Show has not been rated yet).
      */
-    public double getFinalRating() {
-        return finalRating;
-    }
+    public abstract double getFinalRating();
 
     /**
-     * Get timesFavorite of a Movie or Serial. Must only be used after the function
-     * computeTimesFavorite(). After use, timesFavorite must be reset.
+     * Get the number of ratings received so far by a Movie or Serial (for a
+     * Serial, by all its Seasons).
+     */
+    public abstract int getNoRatings();
+
+    /**
+     * Get timesFavorite of a Movie or Serial.
      */
     public int getTimesFavorite() {
         return timesFavorite;
     }
 
     /**
-     * Get timesViewed of a Movie or Serial. Must only be used after the function
-     * computeTimesViewed()
-     * After use, timesViewed must be reset.
+     * Get timesViewed of a Movie or Serial.
      */
     public int getTimesViewed() {
         return timesViewed;
     }
 
     /**
-     * Get totalDuration of a Movie or Serial. Must only be used after the function
-     * computeTotalDuration(). After use, totalDuration must be reset.
+     * Get totalDuration of a Movie or Serial (computed once, when it is
+     * created).
      */
     public int getTotalDuration() {
         return totalDuration;
     }
 
-    /**
-     * Use only to reset finalRating to value 0.
-     */
-    public void setFinalRating(final double finalRating) {
-        this.finalRating = finalRating;
-    }
-
-    /**
-     * Use only to reset timesFavorite to value 0.
-     */
-    public void setTimesFavorite(final int timesFavorite) {
-        this.timesFavorite = timesFavorite;
-    }
-
-    /**
-     * Use only to reset timesViewed to value 0.
-     */
-    public void setTimesViewed(final int timesViewed) {
-        this.timesViewed = timesViewed;
-    }
-
     /**
      * Used to print the title of the Movie or Serial
      */
@@ -1,6 +1,6 @@
 package main;
 
-import actions.CommandAction;
+import actions.ConcurrentCommandRunner;
 import actions.DataContainer;
 import actions.QueryAction;
 import actions.RecommendAction;
@@ -8,8 +8,6 @@ import actor.Actor;
 import checker.Checkstyle;
 import checker.Checker;
 import common.Constants;
-import entertainment.Movie;
-import entertainment.Serial;
 import entertainment.Show;
 import fileio.ActionInputData;
 import fileio.Input;
@@ -23,13 +21,29 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implementation.
  */
 public final class Main {
+    /**
+     * If true (java -Dconcurrent.commands=true), the runs of commands are
+     * executed in parallel by the ConcurrentCommandRunner. By default, they
+     * are executed one after another
+     */
+    private static final boolean CONCURRENT_COMMANDS =
+            Boolean.getBoolean("concurrent.commands");
+
     /**
      * for coding style
      */
@@ -53,15 +67,17 @@ public final class Main {
         Checker checker = new Checker();
         checker.deleteFiles(outputDirectory.listFiles());
 
+        List<File> inputFiles = new ArrayList<>();
         for (File file : Objects.requireNonNull(directory.listFiles())) {
 
             String filepath = Constants.OUT_PATH + file.getName();
             File out = new File(filepath);
             boolean isCreated = out.createNewFile();
             if (isCreated) {
-                action(file.getAbsolutePath(), filepath);
+                inputFiles.add(file);
             }
         }
+        actionAll(inputFiles);
 
         checker.iterateFiles(Constants.RESULT_PATH, Constants.REF_PATH, Constants.TESTS_PATH);
         Checkstyle test = new Checkstyle();
@@ -69,6 +85,57 @@ public final class Main {
     }
 
     /**
+     * Calls action for every input file, with its output file named the same
+     * way, in Constants.OUT_PATH. The files share nothing (each one has its
+     * own Database), so they are processed in parallel, on at most one thread
+     * for each processor. Prints the wall time of each file.
+     * @param inputFiles The input files
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    private static void actionAll(final List<File> inputFiles) throws IOException {
+        int noThreads = Math.max(1, Math.min(inputFiles.size(),
+                Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(noThreads);
+        try {
+            // The wall time of each file, in nanoseconds
+            List<Future<Long>> wallTimes = new ArrayList<>();
+            for (File file : inputFiles) {
+                wallTimes.add(pool.submit(() -> {
+                    long start = System.nanoTime();
+                    action(file.getAbsolutePath(), Constants.OUT_PATH + file.getName());
+                    return System.nanoTime() - start;
+                }));
+            }
+
+            for (int i = 0; i < inputFiles.size(); i++) {
+                long wallTime = TimeUnit.NANOSECONDS.toMillis(wallTimes.get(i).get());
+                System.out.println(inputFiles.get(i).getName() + ": " + wallTime + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing the input files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Executes the actions from the input file and writes their results. The
+     * actions are split into runs of commands (which change the Database)
+     * and runs of queries and recommendations (which only read it). The
+     * queries and recommendations of a run are executed in parallel, while
+     * the commands are executed in order (or in parallel, if
+     * CONCURRENT_COMMANDS is set). A run starts only after the previous one
+     * has finished, so every action sees the Database as if all of them were
+     * executed one after another.
      * @param filePath1 for input file
      * @param filePath2 for output file
      * @throws IOException in case of exceptions to reading / writing
@@ -82,129 +149,142 @@ public final class Main {
 
         // Entry point
         DataContainer data = new DataContainer(input); // Transform input into my own input classes
-        String resultMessage = "";
+        List<ActionInputData> actions = input.getCommands();
+        ConcurrentCommandRunner commandRunner = new ConcurrentCommandRunner(data,
+                ForkJoinPool.commonPool());
+
+        // results[i] is the result message of the action at position i (null
+        // if the action has no result message of its own)
+        String[] results = new String[actions.size()];
+        int start = 0;
+        while (start < actions.size()) {
+            boolean isCommand = isCommand(actions.get(start));
+            int end = start + 1;
+            while (end < actions.size() && isCommand(actions.get(end)) == isCommand) {
+                end++;
+            }
 
-        // Compute the totalDuration for each Show (only once)
-        for (Movie movie : data.getMoviesList()) {
-            movie.computeTotalDuration();
-        }
-        for (Serial serial : data.getSerialsList()) {
-            serial.computeTotalDuration();
+            if (isCommand) {
+                List<ActionInputData> commands = actions.subList(start, end);
+                String[] runResults = CONCURRENT_COMMANDS
+                        ? commandRunner.run(commands)
+                        : commandRunner.runInOrder(commands);
+                System.arraycopy(runResults, 0, results, start, runResults.length);
+            } else {
+                IntStream.range(start, end).parallel()
+                        .forEach(i -> results[i] = read(data, actions.get(i)));
+            }
+            start = end;
         }
 
-        for (ActionInputData command : input.getCommands()) {
-            /**
-             * The user that executes a Command or asks for a Recommendation
-             */
-            User actionUser = new User();
-            for (User user : data.getUsersList()) {
-                if (user.getUsername().equals(command.getUsername())) {
-                    actionUser = user;
-                }
+        // Write the results in the order of the actions. An action with no
+        // result message of its own repeats the previous one
+        String resultMessage = "";
+        for (int i = 0; i < actions.size(); i++) {
+            if (results[i] != null) {
+                resultMessage = results[i];
             }
+            arrayResult.add(fileWriter.writeFile(actions.get(i).getActionId(),
+                    "", resultMessage));
+        }
 
-            switch (command.getActionType()) {
-                case "command" -> {
-                    CommandAction commandAction = new CommandAction(data);
-
-                    switch (command.getType()) {
-                        case "favorite":
-                            resultMessage = commandAction.addFavourite(actionUser,
-                                    command.getTitle());
-                            break;
-
-                        case "view":
-                            resultMessage = commandAction.addView(actionUser,
-                                    command.getTitle());
-                            break;
-
-                        case "rating":
-                            resultMessage = commandAction.addRating(actionUser,
-                                    command.getTitle(), command.getGrade(),
-                                    command.getSeasonNumber());
-                            break;
-
-                        default:
-                            break;
-                    }
-                }
+        fileWriter.closeJSON(arrayResult);
+    }
 
-                case "query" -> {
-                    QueryAction queryAction = new QueryAction(data);
-                    resultMessage = "Query result: ";
-
-                    switch (command.getObjectType()) {
-                        case "actors":
-                            List<Actor> actors = queryAction.queryActors(command.getNumber(),
-                                    command.getFilters(), command.getSortType(),
-                                    command.getCriteria());
-                            resultMessage += actors;
-                            break;
-
-                        case "movies":
-                            List<Show> movies = queryAction.queryShows(command.getNumber(),
-                                    command.getFilters(), command.getSortType(),
-                                    command.getCriteria(), "movies");
-                            resultMessage += movies;
-                            break;
-
-                        case "shows":
-                            List<Show> shows = queryAction.queryShows(command.getNumber(),
-                                    command.getFilters(), command.getSortType(),
-                                    command.getCriteria(), "shows");
-                            resultMessage += shows;
-                            break;
-
-                        case "users":
-                            List<User> users = queryAction.queryUsers(command.getNumber(),
-                                    command.getSortType(), command.getCriteria());
-                            resultMessage += users;
-                            break;
-
-                        default:
-                            break;
-                    }
-                }
+    /**
+     * @param action An action from the input
+     * @return true if the action is a command (it changes the Database)
+     */
+    private static boolean isCommand(final ActionInputData action) {
+        return action.getActionType().equals("command");
+    }
 
-                case "recommendation" -> {
-                    RecommendAction recommendAction = new RecommendAction(data);
+    /**
+     * Executes a query or a recommendation. It only reads the Database, so
+     * more of them can be executed at the same time.
+     * @param data Current Database
+     * @param command The query or the recommendation
+     * @return The result message, or null if the action is unknown
+     */
+    private static String read(final DataContainer data, final ActionInputData command) {
+        String resultMessage = null;
+        /**
+         * The user that asks for a Recommendation
+         */
+        User actionUser = data.getUserRegistry().getUser(command.getUsername());
+
+        switch (command.getActionType()) {
+            case "query" -> {
+                QueryAction queryAction = new QueryAction(data);
+                resultMessage = "Query result: ";
+
+                switch (command.getObjectType()) {
+                    case "actors":
+                        List<Actor> actors = queryAction.queryActors(command.getNumber(),
+                                command.getFilters(), command.getSortType(),
+                                command.getCriteria());
+                        resultMessage += actors;
+                        break;
+
+                    case "movies":
+                        List<Show> movies = queryAction.queryShows(command.getNumber(),
+                                command.getFilters(), command.getSortType(),
+                                command.getCriteria(), "movies");
+                        resultMessage += movies;
+                        break;
+
+                    case "shows":
+                        List<Show> shows = queryAction.queryShows(command.getNumber(),
+                                command.getFilters(), command.getSortType(),
+                                command.getCriteria(), "shows");
+                        resultMessage += shows;
+                        break;
+
+                    case "users":
+                        List<User> users = queryAction.queryUsers(command.getNumber(),
+                                command.getSortType(), command.getCriteria());
+                        resultMessage += users;
+                        break;
+
+                    default:
+                        break;
+                }
+            }
 
-                    switch (command.getType()) {
-                        case "standard":
-                            resultMessage = recommendAction.getStandard(actionUser);
-                            break;
+            case "recommendation" -> {
+                RecommendAction recommendAction = new RecommendAction(data);
 
-                        case "best_unseen":
-                            resultMessage = recommendAction.getBestUnseen(actionUser);
-                            break;
+                switch (command.getType()) {
+                    case "standard":
+                        resultMessage = recommendAction.getStandard(actionUser);
+                        break;
 
-                        case "popular":
-                            resultMessage = recommendAction.getPopular(actionUser);
-                            break;
+                    case "best_unseen":
+                        resultMessage = recommendAction.getBestUnseen(actionUser);
+                        break;
 
-                        case "favorite":
-                            resultMessage = recommendAction.getFavourite(actionUser);
-                            break;
+                    case "popular":
+                        resultMessage = recommendAction.getPopular(actionUser);
+                        break;
 
-                        case "search":
-                            resultMessage = recommendAction.getSearch(actionUser,
-                                    command.getGenre());
-                            break;
+                    case "favorite":
+                        resultMessage = recommendAction.getFavourite(actionUser);
+                        break;
 
-                        default:
-                            break;
-                    }
-                }
+                    case "search":
+                        resultMessage = recommendAction.getSearch(actionUser,
+                                command.getGenre());
+                        break;
 
-                default -> {
-                    break;
+                    default:
+                        break;
                 }
             }
 
-            arrayResult.add(fileWriter.writeFile(command.getActionId(),
-                    "", resultMessage));
+            default -> {
+                break;
+            }
         }
-
-        fileWriter.closeJSON(arrayResult);
+        return resultMessage;
     }
 }
@@ -2,15 +2,23 @@ package user;
 
 import entertainment.Movie;
 import entertainment.Serial;
+import utils.IntIntHashMap;
+import utils.LongHashSet;
+import utils.SymbolTable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.Map;
 
 /**
- * Information about a User
+ * Information about a User. Shows are kept by the ids of their titles (from
+ * the symbol table of the titles), in primitive maps and sets.
  */
 public final class User {
+    /**
+     * Id of the user, given by the symbol table of the usernames
+     */
+    private final int id;
     /**
      * Username of the user
      */
@@ -20,45 +28,99 @@ public final class User {
      */
     private final String subscriptionType;
     /**
-     * History of watched Shows
+     * Ids of the titles (shared by all the Users of the Database)
+     */
+    private final SymbolTable titleSymbols;
+    /**
+     * History of watched Shows, with key = id of the title and value = number
+     * of views
+     */
+    private final IntIntHashMap watchHistory;
+    /**
+     * The ids of the titles of the watched Shows (bit titleId is set if the
+     * Shows with that title were watched)
      */
-    private final Map<String, Integer> watchHistory;
+    private final BitSet seenShows;
     /**
-     * List of favourite Shows
+     * The id of the title of each Show from the Database, by the id of the
+     * Show (shared by all the Users of the Database)
      */
-    private final ArrayList<String> favoriteShows;
+    private final int[] showTitleIds;
     /**
-     * The Movies that have been rated so far
+     * Every Show with a smaller id has been watched (where the search for the
+     * first unwatched Show starts)
      */
-    private final ArrayList<String> givenMovieRatings;
+    private int firstUnseenId;
     /**
-     * The Serials (title + number of Season) that have been rated so far
+     * The ids of the favourite Shows
      */
-    private final Map<String, ArrayList<Integer>> givenSerialRatings;
+    private final LongHashSet favoriteShows;
     /**
-     * Number of ratings given so far
+     * The ids of the Shows (Movies or Serials) that have been rated so far
      */
-    private int noRatings;
+    private final LongHashSet ratedShows;
+    /**
+     * The Seasons (id of the Serial + number of Season, packed) that have
+     * been rated so far
+     */
+    private final LongHashSet ratedSeasons;
 
-    public User(final String username, final String subscriptionType,
-                final Map<String, Integer> watchHistory, final ArrayList<String> favoriteShows) {
+    public User(final int id, final String username, final String subscriptionType,
+                final SymbolTable titleSymbols, final int[] showTitleIds,
+                final Map<String, Integer> watchHistory,
+                final ArrayList<String> favoriteShows) {
+        this.id = id;
         this.username = username;
         this.subscriptionType = subscriptionType;
-        this.watchHistory = watchHistory;
-        this.favoriteShows = favoriteShows;
-        this.givenSerialRatings = new HashMap<>();
-        this.givenMovieRatings = new ArrayList<>();
-        this.noRatings = 0;
+        this.titleSymbols = titleSymbols;
+        this.showTitleIds = showTitleIds;
+        this.watchHistory = new IntIntHashMap();
+        this.seenShows = new BitSet();
+        for (Map.Entry<String, Integer> showEntry : watchHistory.entrySet()) {
+            int titleId = titleSymbols.intern(showEntry.getKey());
+            this.watchHistory.addTo(titleId, showEntry.getValue());
+            this.seenShows.set(titleId);
+        }
+        this.favoriteShows = new LongHashSet();
+        for (String title : favoriteShows) {
+            this.favoriteShows.add(titleSymbols.intern(title));
+        }
+        this.firstUnseenId = 0;
+        skipSeenShows();
+        this.ratedShows = new LongHashSet();
+        this.ratedSeasons = new LongHashSet();
     }
 
     public User() {
+        this.id = -1;
         this.username = null;
         this.subscriptionType = null;
+        this.titleSymbols = null;
         this.watchHistory = null;
+        this.seenShows = null;
+        this.showTitleIds = null;
         this.favoriteShows = null;
-        this.givenMovieRatings = null;
-        this.givenSerialRatings = null;
-        this.noRatings = 0;
+        this.firstUnseenId = 0;
+        this.ratedShows = null;
+        this.ratedSeasons = null;
+    }
+
+    /**
+     * @param title A title
+     * @return true if the Show with this title is in watchHistory
+     */
+    private boolean hasWatched(final String title) {
+        int titleId = titleSymbols.getId(title);
+        return titleId >= 0 && watchHistory.containsKey(titleId);
+    }
+
+    /**
+     * @param title A title
+     * @return true if the Show with this title is in favoriteShows
+     */
+    public boolean isFavorite(final String title) {
+        int titleId = titleSymbols.getId(title);
+        return titleId >= 0 && favoriteShows.contains(titleId);
     }
 
     /**
@@ -68,12 +130,12 @@ public final class User {
      *         exists in the list already or if it is not in watchHistory
      */
     public String addFavourite(final String title) {
-        if (favoriteShows.contains(title)) {
+        if (isFavorite(title)) {
             return "error -> " + title + " is already in favourite list";
         }
 
-        if (watchHistory.containsKey(title)) {
-            favoriteShows.add(title);
+        if (hasWatched(title)) {
+            favoriteShows.add(titleSymbols.getId(title));
             return "success -> " + title + " was added as favourite";
 
         } else {
@@ -82,20 +144,51 @@ public final class User {
     }
 
     /**
-     * Adds a new Show to the map watchHistory, with key = title and value = 1
-     * If the Show is already in watchHistory, increment its value.
+     * Adds a new Show to the map watchHistory, with value = 1. If the Show is
+     * already in watchHistory, increment its value.
      * @param title Title of the Show to be added
      * @return The number of total views for the show (value of the key title
      *         from watchHistory)
      */
     public String addView(final String title) {
-        if (watchHistory.containsKey(title)) {
-            watchHistory.put(title, watchHistory.get(title) + 1); // Add a view
+        int titleId = titleSymbols.intern(title);
+        int views = watchHistory.addTo(titleId, 1); // Add a view
+        seenShows.set(titleId);
+        if (firstUnseenId < showTitleIds.length && showTitleIds[firstUnseenId] == titleId) {
+            // Move to the next Show that was not watched yet
+            skipSeenShows();
+        }
+        return "success -> " + title + " was viewed with total views of " + views;
+    }
 
-        } else {
-            watchHistory.put(title, 1); // Add the Show for the first time
+    /**
+     * Moves firstUnseenId over the Shows whose title was watched.
+     */
+    private void skipSeenShows() {
+        while (firstUnseenId < showTitleIds.length
+                && seenShows.get(showTitleIds[firstUnseenId])) {
+            firstUnseenId++;
         }
-        return "success -> " + title + " was viewed with total views of " + watchHistory.get(title);
+    }
+
+    /**
+     * @param titleId The id of the title of a Show from the Database
+     * @return true if the User has watched the Shows with this title (faster
+     *         than checking watchHistory, when the id is known)
+     */
+    public boolean hasSeen(final int titleId) {
+        return seenShows.get(titleId);
+    }
+
+    /**
+     * Gives the first Show that the User has not watched yet. It is kept up to
+     * date by addView: the Shows that were watched stay watched, so it only
+     * moves forward, when that Show is watched.
+     * @return The smallest id of a Show that the User has not watched yet (or
+     *         the number of Shows, if all of them were watched)
+     */
+    public int firstUnseen() {
+        return firstUnseenId;
     }
 
     /**
@@ -107,12 +200,11 @@ public final class User {
      *         otherwise.
      */
     public String addRating(final Movie movie, final double rating) {
-        if (watchHistory.containsKey(movie.getTitle())) {
-            if (givenMovieRatings.contains(movie.getTitle())) {
+        if (hasWatched(movie.getTitle())) {
+            if (!ratedShows.add(titleSymbols.getId(movie.getTitle()))) {
                 return "error -> " + movie.getTitle() + " has been already rated";
             }
             movie.receiveRating(rating);
-            givenMovieRatings.add(movie.getTitle());
             return "success -> " + movie.getTitle() + " was rated with " + rating + " by "
                     + this.getUsername();
 
@@ -132,20 +224,12 @@ public final class User {
      *         rated, success otherwise.
      */
     public String addRating(final Serial serial, final double rating, final int season) {
-        if (watchHistory.containsKey(serial.getTitle())) {
-            if (givenSerialRatings.containsKey(serial.getTitle())) {
-                if (givenSerialRatings.get(serial.getTitle()).contains(season)) {
-                    return "error -> " + serial.getTitle() + " has been already rated";
-                }
-                ArrayList<Integer> seasonRatings = givenSerialRatings.get(serial.getTitle());
-                seasonRatings.add(season);
-                givenSerialRatings.put(serial.getTitle(), seasonRatings);
-
-            } else {
-                ArrayList<Integer> seasonRatings = new ArrayList<>();
-                seasonRatings.add(season);
-                givenSerialRatings.put(serial.getTitle(), seasonRatings);
+        if (hasWatched(serial.getTitle())) {
+            int titleId = titleSymbols.getId(serial.getTitle());
+            if (!ratedSeasons.add(LongHashSet.pack(titleId, season))) {
+                return "error -> " + serial.getTitle() + " has been already rated";
             }
+            ratedShows.add(titleId);
 
             serial.receiveRating(rating, season);
             return "success -> " + serial.getTitle() + " was rated with " + rating + " by "
@@ -156,15 +240,8 @@ public final class User {
         }
     }
 
-    /**
-     * Updates the numberOfRatings that the User has given so far. The
-     * noRatings must always be computed before using its getter. After use,
-     * it must be reset to 0 (So that it will not stack if we need to update
-     * it later).
-     */
-    public void computeNoRatings() {
-        noRatings += givenMovieRatings.size();
-        noRatings += givenSerialRatings.size();
+    public int getId() {
+        return id;
     }
 
     public String getUsername() {
@@ -175,20 +252,12 @@ public final class User {
         return subscriptionType;
     }
 
-    public Map<String, Integer> getWatchHistory() {
-        return watchHistory;
-    }
-
-    public ArrayList<String> getFavoriteShows() {
-        return favoriteShows;
-    }
-
+    /**
+     * Get the number of Shows that the User has rated so far (a Serial
+     * counts once, no matter how many of its Seasons were rated)
+     */
     public int getNoRatings() {
-        return noRatings;
-    }
-
-    public void setNoRatings(final int noRatings) {
-        this.noRatings = noRatings;
+        return ratedShows.size();
     }
 
     @Override
@@ -0,0 +1,127 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values, with open addressing (linear probing)
+ * in two primitive arrays, so no key or value is ever boxed. Keys must not be
+ * negative. Entries can't be removed.
+ */
+public final class IntIntHashMap {
+    /**
+     * Marks a free slot in the array of keys
+     */
+    private static final int FREE = -1;
+    /**
+     * Initial number of slots (always a power of 2)
+     */
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * Used to spread the bits of the keys before choosing their slot
+     */
+    private static final int MIX = 0x9E3779B9;
+    /**
+     * How many bits of the mixed key are folded into its lower bits
+     */
+    private static final int SHIFT = 16;
+
+    /**
+     * The keys, where keys[slot] is FREE if the slot is empty
+     */
+    private int[] keys;
+    /**
+     * The values, where values[slot] belongs to keys[slot]
+     */
+    private int[] values;
+    /**
+     * Number of entries
+     */
+    private int size;
+
+    public IntIntHashMap() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    /**
+     * @param key The key
+     * @return The slot of the key, or the free slot where it would be added
+     */
+    private int slotOf(final int key) {
+        int mask = keys.length - 1;
+        int hash = key * MIX;
+        int slot = (hash ^ (hash >>> SHIFT)) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param key The key
+     * @return true if the map has an entry with this key
+     */
+    public boolean containsKey(final int key) {
+        return keys[slotOf(key)] == key;
+    }
+
+    /**
+     * @param key The key
+     * @return The value of the key, or 0 if the key is not in the map
+     */
+    public int get(final int key) {
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            return values[slot];
+        }
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of a key (a missing key has the value 0).
+     * @param key The key
+     * @param delta What is added to its value
+     * @return The new value of the key
+     */
+    public int addTo(final int key, final int delta) {
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return values[slot];
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        return delta;
+    }
+
+    /**
+     * Doubles the number of slots and places every entry again.
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(keys, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+}
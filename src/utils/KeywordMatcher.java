@@ -0,0 +1,303 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Checks if a text contains all the keywords of a query, each of them
+ * between two of the characters " .,-" (ignoring the case of ASCII letters).
+ * The keywords are compiled once, into an Aho-Corasick automaton, so each
+ * text is then matched in a single pass, no matter how many keywords there
+ * are. Keywords that contain special characters of a regular expression (or
+ * are empty) are still matched as regular expressions, compiled only once.
+ */
+public final class KeywordMatcher {
+    /**
+     * The characters that must be found before and after a keyword
+     */
+    private static final String BOUNDARIES = " .,-";
+    /**
+     * The special characters of a regular expression
+     */
+    private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+    /**
+     * The number of ASCII characters
+     */
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * The class of each ASCII character that appears in the keywords, where 0
+     * is the class of all the characters that don't appear in them
+     */
+    private final int[] asciiClasses = new int[ASCII_SIZE];
+    /**
+     * The class of each other character that appears in the keywords
+     */
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    /**
+     * Number of character classes
+     */
+    private final int noClasses;
+    /**
+     * The transitions of the automaton, where transitions[state * noClasses +
+     * class] is the next state
+     */
+    private final int[] transitions;
+    /**
+     * The keywords that end in each state, where outputs[state] holds their
+     * indexes
+     */
+    private final int[][] outputs;
+    /**
+     * The length of each keyword from the automaton
+     */
+    private final int[] lengths;
+    /**
+     * The keywords that are matched as regular expressions
+     */
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    /**
+     * Compiles the keywords.
+     * @param keyWords The keywords that must all be found in a text
+     */
+    public KeywordMatcher(final List<String> keyWords) {
+        Set<String> literals = new LinkedHashSet<>();
+        for (String keyWord : keyWords) {
+            if (isLiteral(keyWord)) {
+                literals.add(fold(keyWord));
+            } else {
+                patterns.add(Pattern.compile("[ .,-]" + keyWord + "[ .,-]",
+                        Pattern.CASE_INSENSITIVE));
+            }
+        }
+
+        // Give a class to each character of the keywords
+        int nextClass = 1;
+        for (String literal : literals) {
+            for (char c : literal.toCharArray()) {
+                if (classOf(c) == 0) {
+                    if (c < ASCII_SIZE) {
+                        asciiClasses[c] = nextClass;
+                    } else {
+                        otherClasses.put(c, nextClass);
+                    }
+                    nextClass++;
+                }
+            }
+        }
+        noClasses = nextClass;
+
+        // Build the trie of the keywords, with -1 for a missing transition
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newState());
+        ends.add(new ArrayList<>());
+        lengths = new int[literals.size()];
+        int index = 0;
+        for (String literal : literals) {
+            int state = 0;
+            for (char c : literal.toCharArray()) {
+                int[] row = trie.get(state);
+                if (row[classOf(c)] == -1) {
+                    row[classOf(c)] = trie.size();
+                    trie.add(newState());
+                    ends.add(new ArrayList<>());
+                }
+                state = row[classOf(c)];
+            }
+            ends.get(state).add(index);
+            lengths[index++] = literal.length();
+        }
+
+        // Turn the trie into an automaton, going through it breadth-first, so
+        // that the fail state of each state is complete before it is used
+        int[] fail = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int c = 0; c < noClasses; c++) {
+            if (root[c] == -1) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            int[] row = trie.get(state);
+            int[] failRow = trie.get(fail[state]);
+            ends.get(state).addAll(ends.get(fail[state]));
+            for (int c = 0; c < noClasses; c++) {
+                if (row[c] == -1) {
+                    row[c] = failRow[c];
+                } else {
+                    fail[row[c]] = failRow[c];
+                    queue.add(row[c]);
+                }
+            }
+        }
+
+        transitions = new int[trie.size() * noClasses];
+        outputs = new int[trie.size()][];
+        for (int state = 0; state < trie.size(); state++) {
+            System.arraycopy(trie.get(state), 0, transitions, state * noClasses, noClasses);
+            outputs[state] = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @return A state of the trie with no transitions
+     */
+    private int[] newState() {
+        int[] row = new int[noClasses];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * @param keyWord A keyword
+     * @return true if the keyword is matched by the automaton, false if it is
+     *         matched as a regular expression
+     */
+    private static boolean isLiteral(final String keyWord) {
+        if (keyWord.isEmpty()) {
+            return false;
+        }
+        for (char c : keyWord.toCharArray()) {
+            if (REGEX_CHARACTERS.indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param c A character
+     * @return The lower case of the character, if it is an ASCII letter, or
+     *         the same character otherwise (like Pattern.CASE_INSENSITIVE)
+     */
+    private static char fold(final char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return c;
+    }
+
+    /**
+     * @param text A text
+     * @return The text with all its ASCII letters in lower case (the form in
+     *         which keywords and tokens are compared)
+     */
+    public static String fold(final String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param keyWord A keyword
+     * @return true if the keyword is found in a text exactly when it is one
+     *         of the tokens of the text (it is a plain word, with no
+     *         boundary characters and no special characters)
+     */
+    public static boolean isToken(final String keyWord) {
+        if (!isLiteral(keyWord)) {
+            return false;
+        }
+        for (char c : keyWord.toCharArray()) {
+            if (BOUNDARIES.indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a text into tokens: the longest runs of characters that are not
+     * boundaries, with a boundary right before and right after them (so the
+     * first and the last run of the text don't count, unless the text starts
+     * or ends with a boundary).
+     * @param text A text
+     * @return The tokens of the text, folded (with duplicates)
+     */
+    public static List<String> tokens(final String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (BOUNDARIES.indexOf(text.charAt(i)) >= 0) {
+                if (i > start && isBoundary(text, start - 1)) {
+                    tokens.add(fold(text.substring(start, i)));
+                }
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @param c A character (already folded)
+     * @return The class of the character
+     */
+    private int classOf(final char c) {
+        if (c < ASCII_SIZE) {
+            return asciiClasses[c];
+        }
+        return otherClasses.getOrDefault(c, 0);
+    }
+
+    /**
+     * @param text A text
+     * @param index An index of the text
+     * @return true if there is a boundary character at this index
+     */
+    private static boolean isBoundary(final String text, final int index) {
+        return index >= 0 && index < text.length()
+                && BOUNDARIES.indexOf(text.charAt(index)) >= 0;
+    }
+
+    /**
+     * Checks if the text contains all the keywords, each of them between two
+     * boundary characters.
+     * @param text The text (for example, the description of an Actor)
+     * @return true if all the keywords were found
+     */
+    public boolean matchesAll(final String text) {
+        if (lengths.length > 0) {
+            boolean[] found = new boolean[lengths.length];
+            int left = lengths.length;
+            int state = 0;
+            for (int i = 0; i < text.length() && left > 0; i++) {
+                state = transitions[state * noClasses + classOf(fold(text.charAt(i)))];
+                for (int keyWord : outputs[state]) {
+                    // The keyword ends at i, so it needs a boundary right
+                    // before its first character and right after i
+                    if (!found[keyWord] && isBoundary(text, i + 1)
+                            && isBoundary(text, i - lengths[keyWord])) {
+                        found[keyWord] = true;
+                        left--;
+                    }
+                }
+            }
+            if (left > 0) {
+                return false;
+            }
+        }
+
+        for (Pattern pattern : patterns) {
+            if (!pattern.matcher(text).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
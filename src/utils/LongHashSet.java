@@ -0,0 +1,116 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of long values, with open addressing (linear probing) in a primitive
+ * array, so no value is ever boxed. Values must not be negative. Values can't
+ * be removed.
+ */
+public final class LongHashSet {
+    /**
+     * Marks a free slot in the array of values
+     */
+    private static final long FREE = -1L;
+    /**
+     * Initial number of slots (always a power of 2)
+     */
+    private static final int INITIAL_CAPACITY = 8;
+    /**
+     * Used to spread the bits of the values before choosing their slot
+     */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+    /**
+     * How many bits of the mixed value are dropped to choose its slot
+     */
+    private static final int SHIFT = 32;
+    /**
+     * Keeps only the low 32 bits of a long
+     */
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    /**
+     * The values, where values[slot] is FREE if the slot is empty
+     */
+    private long[] values;
+    /**
+     * Number of values
+     */
+    private int size;
+
+    public LongHashSet() {
+        values = new long[INITIAL_CAPACITY];
+        Arrays.fill(values, FREE);
+        size = 0;
+    }
+
+    /**
+     * Packs two ints into one value of the set.
+     * @param high The first int (the high 32 bits), must not be negative
+     * @param low The second int (the low 32 bits)
+     * @return The packed value
+     */
+    public static long pack(final int high, final int low) {
+        return ((long) high << SHIFT) | (low & LOW_BITS);
+    }
+
+    /**
+     * @param value The value
+     * @return The slot of the value, or the free slot where it would be added
+     */
+    private int slotOf(final long value) {
+        int mask = values.length - 1;
+        int slot = (int) ((value * MIX) >>> SHIFT) & mask;
+        while (values[slot] != FREE && values[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param value The value
+     * @return true if the value is in the set
+     */
+    public boolean contains(final long value) {
+        return values[slotOf(value)] == value;
+    }
+
+    /**
+     * Adds a value to the set.
+     * @param value The value
+     * @return true if the value was not in the set before
+     */
+    public boolean add(final long value) {
+        int slot = slotOf(value);
+        if (values[slot] == value) {
+            return false;
+        }
+        values[slot] = value;
+        size++;
+        if (size * 2 > values.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the number of slots and places every value again.
+     */
+    private void grow() {
+        long[] oldValues = values;
+        values = new long[oldValues.length * 2];
+        Arrays.fill(values, FREE);
+        for (long value : oldValues) {
+            if (value != FREE) {
+                values[slotOf(value)] = value;
+            }
+        }
+    }
+
+    /**
+     * @return The number of values
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,36 @@
+package utils;
+
+/**
+ * A fixed number of locks shared by many entities, chosen by the id of the
+ * entity. Entities with different ids may share a lock, but an entity always
+ * gets the same one, so it needs no lock of its own.
+ */
+public final class StripedLocks {
+    /**
+     * The locks (their number is a power of 2)
+     */
+    private final Object[] locks;
+
+    /**
+     * @param minStripes The minimum number of locks (rounded up to a power
+     *                   of 2)
+     */
+    public StripedLocks(final int minStripes) {
+        int stripes = 1;
+        while (stripes < minStripes) {
+            stripes *= 2;
+        }
+        locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @param id A non-negative id (consecutive ids get different locks)
+     * @return The lock of the entity with this id
+     */
+    public Object lockFor(final int id) {
+        return locks[id & (locks.length - 1)];
+    }
+}
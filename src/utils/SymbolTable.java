@@ -0,0 +1,70 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives dense int ids (0, 1, 2, ...) to names, so that entities can be kept
+ * in arrays and compared by their id instead of their name. It can be used by
+ * more threads at the same time: lookups by name take no lock, new ids are
+ * given one at a time.
+ */
+public final class SymbolTable {
+    /**
+     * The id of each name
+     */
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    /**
+     * How many ids were given so far (guarded by the lock of the table)
+     */
+    private int size;
+    /**
+     * The id of the null name, or -1 if it doesn't have one yet (a
+     * ConcurrentHashMap can't keep a null key)
+     */
+    private volatile int nullId = -1;
+
+    /**
+     * Gives the id of a name, or a new id if the name doesn't have one yet.
+     * @param name The name
+     * @return The id of the name
+     */
+    public int intern(final String name) {
+        int id = getId(name);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            // Another thread may have added the name in the meantime
+            id = getId(name);
+            if (id >= 0) {
+                return id;
+            }
+            id = size++;
+            if (name == null) {
+                nullId = id;
+            } else {
+                ids.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @param name The name
+     * @return The id of the name, or -1 if it doesn't have one
+     */
+    public int getId(final String name) {
+        if (name == null) {
+            return nullId;
+        }
+        return ids.getOrDefault(name, -1);
+    }
+
+    /**
+     * @return How many ids were given so far
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
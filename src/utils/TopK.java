@@ -0,0 +1,80 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the first k elements (according to a given order) from all the
+ * elements that are offered to it, without sorting all of them. It keeps a
+ * heap of at most k elements, whose head is the last one of the selected
+ * elements, so offering n elements costs O(n log k).
+ * @param <T> Type of the selected elements
+ */
+public final class TopK<T> {
+    /**
+     * How many elements are selected (no limit if k <= 0)
+     */
+    private final int k;
+    /**
+     * The order of the elements (the first k in this order are selected)
+     */
+    private final Comparator<? super T> order;
+    /**
+     * The elements selected so far, with the last one (in the given order)
+     * as head
+     */
+    private final PriorityQueue<T> selected;
+    /**
+     * All the elements offered so far, used only if there is no limit
+     */
+    private final List<T> all;
+
+    /**
+     * @param k How many elements are selected (no limit if k <= 0)
+     * @param order The order used to select (and then sort) the elements
+     */
+    public TopK(final int k, final Comparator<? super T> order) {
+        this.k = k;
+        this.order = order;
+        if (k > 0) {
+            this.selected = new PriorityQueue<>(k, Collections.reverseOrder(order));
+            this.all = null;
+        } else {
+            this.selected = null;
+            this.all = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Offers a new element, which is kept only if it is one of the first k
+     * elements offered so far.
+     * @param element The offered element
+     */
+    public void offer(final T element) {
+        if (selected == null) {
+            all.add(element);
+        } else if (selected.size() < k) {
+            selected.add(element);
+        } else if (order.compare(element, selected.peek()) < 0) {
+            selected.poll();
+            selected.add(element);
+        }
+    }
+
+    /**
+     * @return The selected elements, sorted in the given order
+     */
+    public List<T> toList() {
+        List<T> result;
+        if (selected == null) {
+            result = new ArrayList<>(all);
+        } else {
+            result = new ArrayList<>(selected);
+        }
+        result.sort(order);
+        return result;
+    }
+}
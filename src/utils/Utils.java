@@ -7,6 +7,7 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
@@ -25,9 +26,12 @@ public final class Utils {
     /**
      * Transforms a string into an enum
      * @param genre of video
-     * @return an Genre Enum
+     * @return an Genre Enum (null if the genre is null or unknown)
      */
     public static Genre stringToGenre(final String genre) {
+        if (genre == null) {
+            return null;
+        }
         return switch (genre.toLowerCase()) {
             case "action" -> Genre.ACTION;
             case "adventure" -> Genre.ADVENTURE;
@@ -100,6 +104,32 @@ public final class Utils {
         };
     }
 
+    /**
+     * Gives a bit to each award, so that a set of awards can be kept in an int
+     * @param award An award (null for an unknown award)
+     * @return The bit of the award (unknown awards share the bit after the
+     *         ones of the known awards)
+     */
+    public static int awardBit(final ActorsAwards award) {
+        if (award == null) {
+            return 1 << ActorsAwards.values().length;
+        }
+        return 1 << award.ordinal();
+    }
+
+    /**
+     * Transforms a list of awards into the set of their bits
+     * @param awards The names of the awards
+     * @return an int with the bit of each award set
+     */
+    public static int awardsToMask(final List<String> awards) {
+        int mask = 0;
+        for (String award : awards) {
+            mask |= awardBit(stringToAwards(award));
+        }
+        return mask;
+    }
+
     /**
      * Transforms an array of JSON's into an array of strings
      * @param array of JSONs